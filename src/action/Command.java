@@ -26,23 +26,32 @@ public final class Command {
             throws IOException {
         User user = User.getUser(database, action);
         String msg = null;
+        // the version of the user only changes when the command succeeds, so
+        // the indexes and their epochs are left alone after a failed command
+        long version = user == null ? 0 : user.getVersion();
         // switch to get every type of command action
         switch (action.getType()) {
             // calling static functions to solve the action
             case "favorite" -> {
                 assert user != null;
-                msg = user.addFavorite(user, action.getTitle());
+                int titleId = database.getTitleId(action.getTitle());
+                msg = user.addFavorite(user, action.getTitle(), titleId,
+                        database.getVideo(titleId));
+                if (user.getVersion() != version) {
+                    database.updateFavorites(database.getVideo(titleId));
+                }
             }
             case "view" -> {
                 assert user != null;
-                if (Movie.getMovie(database, action) != null) {
-                    msg = user.watchMovie(user,
-                            Objects.requireNonNull(Movie.getMovie(database,
-                                    action)));
+                Movie movie = Movie.getMovie(database, action);
+                if (movie != null) {
+                    msg = user.watchMovie(user, movie);
+                    database.addGenreViews(movie);
                 } else {
-                    msg = user.watchSerial(user,
-                            Objects.requireNonNull(Serial.getSerial(database,
-                                    action)));
+                    Serial serial = Objects.requireNonNull(Serial.getSerial(database,
+                            action));
+                    msg = user.watchSerial(user, serial);
+                    database.addGenreViews(serial);
                 }
             }
             case "rating" -> {
@@ -50,12 +59,17 @@ public final class Command {
                 if (movie != null) {
                     assert user != null;
                     msg = user.rateMovie(user, action, movie);
-
+                    if (user.getVersion() != version) {
+                        database.updateRatings(user, movie);
+                    }
                 } else {
                     Serial serial = Serial.getSerial(database, action);
                     if (serial != null) {
                         assert user != null;
                         msg = user.rateSerial(user, action, serial);
+                        if (user.getVersion() != version) {
+                            database.updateRatings(user, serial);
+                        }
                     }
                 }
             }
@@ -1,6 +1,7 @@
 package action;
 
 import database.Database;
+import database.ResultCache;
 import entities.Actor;
 import entities.Movie;
 import entities.Serial;
@@ -24,6 +25,52 @@ public final class Query {
     public static void query(final Database database, final JSONArray jsonArray,
                              final Action action, final Writer writer)
                                 throws IOException {
+        // the same query is answered again only if the state it reads has
+        // changed since then
+        String key = ResultCache.key(action);
+        long version = version(database, action);
+        // the queries don't read the state of a single user
+        String msg = database.getResultCache().get(key, 0, version);
+        if (msg == null) {
+            msg = result(database, action);
+            if (msg != null) {
+                database.getResultCache().put(key, 0, version, msg);
+            }
+        }
+        // writing in the jsonArray the result of execution
+        jsonArray.add(jsonArray.size(),
+                writer.writeFile(action.getActionId(), "", msg));
+    }
+
+    /**
+     * @param database database which contains info about every entity
+     * @param action the query
+     * @return the version of the state the query reads, which changes after
+     *         every command that can change its result
+     */
+    private static long version(final Database database, final Action action) {
+        // the users are ranked by the number of ratings they have given
+        if ("users".equals(action.getObjectType())) {
+            return database.getRatingsEpoch();
+        }
+        if (action.getCriteria() == null) {
+            return 0;
+        }
+        // the awards, descriptions and durations never change
+        return switch (action.getCriteria()) {
+            case "average", "ratings" -> database.getRatingsEpoch();
+            case "favorite" -> database.getFavoritesEpoch();
+            case "most_viewed" -> database.getViewsEpoch();
+            default -> 0;
+        };
+    }
+
+    /**
+     * @param database database which contains info about every entity
+     * @param action the query
+     * @return the message with the result of the query
+     */
+    private static String result(final Database database, final Action action) {
         String msg = null;
         String criteria = action.getCriteria();
         // switch to get every type of query
@@ -69,12 +116,9 @@ public final class Query {
                                                 action);
                         break;
                     case "most_viewed":
-                        if (Movie.mostViewed(database, action).size() == 0) {
-                            msg = "Query result: []";
-                        } else {
-                            msg = "Query result: "
-                                    + Movie.mostViewed(database, action);
-                        }
+                        // computed only once, an empty list is printed as []
+                        ArrayList<String> mostViewed = Movie.mostViewed(database, action);
+                        msg = "Query result: " + mostViewed;
                         break;
                     default:
                         break;
@@ -95,12 +139,10 @@ public final class Query {
                                 action);
                         break;
                     case "most_viewed":
-                        if (Serial.mostViewedSerial(database, action).size() != 0) {
-                            msg = "Query result: " + Serial.mostViewedSerial(
-                                    database, action);
-                        } else {
-                            msg = "Query result: []";
-                        }
+                        // computed only once, an empty list is printed as []
+                        ArrayList<String> mostViewedSerials =
+                                Serial.mostViewedSerial(database, action);
+                        msg = "Query result: " + mostViewedSerials;
                         break;
                     default:
                         break;
@@ -110,9 +152,7 @@ public final class Query {
                 msg = "Query result: []";
                 break;
             }
-        // writing in the jsonArray the result of execution
-        jsonArray.add(jsonArray.size(),
-                writer.writeFile(action.getActionId(), "", msg));
+        return msg;
     }
 
 }
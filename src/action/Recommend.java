@@ -1,11 +1,13 @@
 package action;
 
 import database.Database;
+import database.ResultCache;
 import entities.User;
 import fileio.Writer;
 import org.json.simple.JSONArray;
 
 import java.io.IOException;
+import java.util.ArrayList;
 
 public final class Recommend {
     private Recommend() { }
@@ -21,55 +23,98 @@ public final class Recommend {
                                  final JSONArray jsonArray,
                                  final Action action,
                                  final Writer writer) throws IOException {
+        // the same recommendation for the same user is computed again only
+        // after the user or the totals it reads have changed
+        String key = ResultCache.key(action);
+        User user = User.getUser(database, action);
+        long userVersion = user == null ? 0 : user.getVersion();
+        long epoch = epoch(database, action);
+        // the entry is valid only for the same user version and the same
+        // epoch, each one being checked on its own
+        String msg = database.getResultCache().get(key, userVersion, epoch);
+        if (msg == null) {
+            msg = result(database, action);
+            if (msg != null) {
+                database.getResultCache().put(key, userVersion, epoch, msg);
+            }
+        }
+        // writing in the jsonArray the result of execution
+        jsonArray.add(jsonArray.size(),
+                writer.writeFile(action.getActionId(), "", msg));
+    }
+
+    /**
+     * @param database database which contains info about every entity
+     * @param action the recommendation
+     * @return the epoch of the totals used by the strategy of the
+     *         recommendation
+     */
+    private static long epoch(final Database database, final Action action) {
+        if (action.getType() == null) {
+            return 0;
+        }
+        return switch (action.getType()) {
+            case "search", "best_unseen" -> database.getRatingsEpoch();
+            case "popular" -> database.getViewsEpoch();
+            case "favorite" -> database.getFavoritesEpoch();
+            // the order of the database never changes
+            default -> 0;
+        };
+    }
+
+    /**
+     * @param database database which contains info about every entity
+     * @param action the recommendation
+     * @return the message with the result of the recommendation
+     */
+    private static String result(final Database database, final Action action) {
         String msg = null;
-        // switch to get every type of recommendation
+        // switch to get every type of recommendation, every recommendation
+        // being computed only once
         switch (action.getType()) {
             case "standard":
-                if (User.standardRecommendation(database, action) == null) {
+                String standard = User.standardRecommendation(database, action);
+                if (standard == null) {
                     msg = "StandardRecommendation cannot be applied!";
                 } else {
-                    msg = "StandardRecommendation result: "
-                            + User.standardRecommendation(database, action);
+                    msg = "StandardRecommendation result: " + standard;
                 }
                 break;
             case "search":
-                if (User.searchRecommendation(database, action).size() == 0
-                    || User.searchRecommendation(database, action) == null) {
+                ArrayList<String> search = User.searchRecommendation(database, action);
+                if (search == null || search.size() == 0) {
                     msg = "SearchRecommendation cannot be applied!";
                 } else {
-                    msg = "SearchRecommendation result: "
-                            + User.searchRecommendation(database, action);
+                    msg = "SearchRecommendation result: " + search;
                 }
                 break;
             case "popular":
-                if (User.popularRecommendation(database, action) == null) {
+                String popular = User.popularRecommendation(database, action);
+                if (popular == null) {
                     msg = "PopularRecommendation cannot be applied!";
                 } else {
-                    msg = "PopularRecommendation result: "
-                            + User.popularRecommendation(database, action);
+                    msg = "PopularRecommendation result: " + popular;
                 }
                 break;
             case "best_unseen":
-                if (User.bestunseenRecommendation(database, action) == null) {
+                String bestUnseen = User.bestunseenRecommendation(database, action);
+                if (bestUnseen == null) {
                     msg = "BestRatedUnseenRecommendation cannot be applied!";
                 } else {
-                    msg = "BestRatedUnseenRecommendation result: "
-                            + User.bestunseenRecommendation(database, action);
+                    msg = "BestRatedUnseenRecommendation result: " + bestUnseen;
                 }
                 break;
             case "favorite":
-                if (User.favoriteRecommendation(database, action) == null) {
+                String favorite = User.favoriteRecommendation(database, action);
+                if (favorite == null) {
                     msg = "FavoriteRecommendation cannot be applied!";
                 } else {
-                    msg = "FavoriteRecommendation result: "
-                            + User.favoriteRecommendation(database, action);
+                    msg = "FavoriteRecommendation result: " + favorite;
                 }
+                break;
             default:
                 break;
-
         }
-        // writing in the jsonArray the result of execution
-        jsonArray.add(jsonArray.size(),
-                writer.writeFile(action.getActionId(), "", msg));
+        return msg;
     }
 }
@@ -71,6 +71,7 @@ public final class Checker {
     public void iterateFiles(final String dirOutPath, final String dirRefPath,
                              final String inputPath) throws IOException {
         int score = 0;
+        int maxScore = 0;
         int length;
 
         File dirOut = new File(dirOutPath);
@@ -101,6 +102,12 @@ public final class Checker {
         if (listOut.size() == listRefs.size() && inputDir != null) {
             Arrays.sort(inputDir);
             for (int i = 0; i < listOut.size(); i++) {
+                if (inputDir[i].getName().contains(Constants.LARGE)
+                        || inputDir[i].getName().contains(Constants.NO_VALUES)) {
+                    maxScore += Constants.LARGE_TEST;
+                } else {
+                    maxScore += Constants.SINGLE_TEST;
+                }
 
                 length = Constants.MAX_LENGTH - inputDir[i].getName().length();
                 if (compareQueries(listRefs.get(i), listOut.get(i))) {
@@ -136,7 +143,7 @@ public final class Checker {
         }
 
         System.out.println("-----------------------------");
-        System.out.println("TOTAL = " + score + "/80");
+        System.out.println("TOTAL = " + score + "/" + maxScore);
     }
 
 
@@ -7,11 +7,16 @@ import fileio.SerialInputData;
 import fileio.UserInputData;
 import fileio.Input;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
 import entities.Actor;
 import entities.Movie;
 import entities.Serial;
 import entities.User;
+import entities.Video;
 import action.Action;
+import utils.IntIntMap;
+import utils.IntSet;
 
 
 public final class Database {
@@ -20,16 +25,82 @@ public final class Database {
     private final ArrayList<Action> commandsData = new ArrayList<>();
     private final ArrayList<Movie> moviesData = new ArrayList<>();
     private final ArrayList<Serial> serialsData = new ArrayList<>();
+    /**
+     * Ids of the titles, the ones of the videos coming first, in the order of
+     * the database
+     */
+    private final SymbolTable titles = new SymbolTable();
+    /**
+     * Ids of the usernames, in the order of the database
+     */
+    private final SymbolTable usernames = new SymbolTable();
+    /**
+     * Ids of the actor names, in the order of the database
+     */
+    private final SymbolTable actorNames = new SymbolTable();
+    /**
+     * The movie or serial of every title id, movies taking precedence, null
+     * for the titles which only appear in the users lists
+     */
+    private final ArrayList<Video> videosByTitle = new ArrayList<>();
+    /**
+     * The user of every username id
+     */
+    private final ArrayList<User> usersByName = new ArrayList<>();
+    /**
+     * The movies of every actor name id, in database order
+     */
+    private final ArrayList<ArrayList<Movie>> moviesByActor = new ArrayList<>();
+    /**
+     * The serials of every actor name id, in database order
+     */
+    private final ArrayList<ArrayList<Serial>> serialsByActor = new ArrayList<>();
+    /**
+     * Bitsets of the year, genre, award and word filters
+     */
+    private final FilterIndex filterIndex;
+    /**
+     * The videos ordered by the grade of the best unseen recommendation
+     */
+    private final GradeIndex gradeIndex;
+    /**
+     * The videos of every genre ordered by the grade of the search
+     * recommendation
+     */
+    private final GenreGradeIndex genreGradeIndex;
+    /**
+     * The total views of every genre
+     */
+    private final GenrePopularity genrePopularity;
+    /**
+     * The videos ordered by their favorite occurrences
+     */
+    private final FavoriteIndex favoriteIndex;
+    /**
+     * The movies and serials sorted by duration
+     */
+    private final DurationIndex durationIndex;
+    /**
+     * The users ordered by their number of ratings
+     */
+    private final RatingLeaderboard ratingLeaderboard;
+    /**
+     * The answered queries and recommendations
+     */
+    private final ResultCache resultCache = new ResultCache();
+    /**
+     * Advanced by every view, rating and favorite command, so the cached
+     * results computed before the command aren't used anymore
+     */
+    private long viewsEpoch = 0;
+    private long ratingsEpoch = 0;
+    private long favoritesEpoch = 0;
 
     public Database(final Input input) {
         for (ActorInputData actor : input.getActors()) {
             this.actorsData.add(new Actor(actor.getName(), actor.getCareerDescription(),
                                 actor.getFilmography(), actor.getAwards()));
         }
-        for (UserInputData user : input.getUsers()) {
-            this.usersData.add(new User(user.getUsername(), user.getSubscriptionType(),
-                                user.getHistory(), user.getFavoriteMovies()));
-        }
         for (ActionInputData command : input.getCommands()) {
             this.commandsData.add(new Action(command.getActionId(), command.getActionType(),
                                             command.getType(), command.getUsername(),
@@ -48,6 +119,284 @@ public final class Database {
                                 serial.getGenres(), serial.getNumberSeason(),
                                 serial.getSeasons(), serial.getYear()));
         }
+        // building the indexes, the first entity with a given key wins, just
+        // like the old linear scans did
+        for (Actor actor : this.actorsData) {
+            if (this.actorNames.intern(actor.getName()) == this.moviesByActor.size()) {
+                this.moviesByActor.add(new ArrayList<>());
+                this.serialsByActor.add(new ArrayList<>());
+            }
+        }
+        // every video gets a dense id, the movies first and then the serials,
+        // and every actor gets one too
+        int id = 0;
+        for (Movie movie : this.moviesData) {
+            movie.setId(id++);
+            movie.setTitleId(internTitle(movie));
+            if (movie.getCast() != null) {
+                // an actor appearing twice in a cast is indexed only once
+                for (String name : new HashSet<>(movie.getCast())) {
+                    int nameId = this.actorNames.getId(name);
+                    if (nameId != SymbolTable.NO_ID) {
+                        this.moviesByActor.get(nameId).add(movie);
+                    }
+                }
+            }
+        }
+        for (Serial serial : this.serialsData) {
+            serial.setId(id++);
+            serial.setTitleId(internTitle(serial));
+            if (serial.getCast() != null) {
+                for (String name : new HashSet<>(serial.getCast())) {
+                    int nameId = this.actorNames.getId(name);
+                    if (nameId != SymbolTable.NO_ID) {
+                        this.serialsByActor.get(nameId).add(serial);
+                    }
+                }
+            }
+        }
+        // the users keep the titles from their lists by id, the titles which
+        // aren't in the database get ids after the ones of the videos
+        for (UserInputData user : input.getUsers()) {
+            IntIntMap history = new IntIntMap();
+            for (Map.Entry<String, Integer> entry : user.getHistory().entrySet()) {
+                history.put(this.titles.intern(entry.getKey()), entry.getValue());
+            }
+            IntSet favorites = null;
+            if (user.getFavoriteMovies() != null) {
+                favorites = new IntSet();
+                for (String title : user.getFavoriteMovies()) {
+                    favorites.add(this.titles.intern(title));
+                }
+            }
+            User newUser = new User(user.getUsername(), user.getSubscriptionType(),
+                                    history, favorites);
+            newUser.setId(this.usersData.size());
+            this.usersData.add(newUser);
+            if (this.usernames.intern(user.getUsername()) == this.usersByName.size()) {
+                this.usersByName.add(newUser);
+            }
+        }
+        // linking every actor with the movies and serials they play in, so
+        // their average rate can be updated with every rating
+        id = 0;
+        for (Actor actor : this.actorsData) {
+            actor.setId(id++);
+            // the total number of awards doesn't change after loading
+            Actor.setActorAwards(actor);
+            actor.setRoles(getMoviesByActor(actor.getName()),
+                    getSerialsByActor(actor.getName()));
+            for (Movie movie : getMoviesByActor(actor.getName())) {
+                movie.addCastActor(actor);
+            }
+            for (Serial serial : getSerialsByActor(actor.getName())) {
+                serial.addCastActor(actor);
+            }
+        }
+        this.filterIndex = new FilterIndex(this.moviesData, this.serialsData,
+                this.actorsData);
+        this.gradeIndex = new GradeIndex(this.moviesData, this.serialsData);
+        this.genreGradeIndex = new GenreGradeIndex(this.moviesData, this.serialsData);
+        this.genrePopularity = new GenrePopularity(this, this.moviesData, this.serialsData);
+        this.durationIndex = new DurationIndex(this.moviesData, this.serialsData);
+        // the total views of every video start from the users history and
+        // are updated by every view command afterwards
+        for (User user : this.usersData) {
+            user.getHistory().forEach((titleId, views) -> {
+                Video video = getVideo(titleId);
+                if (video != null) {
+                    video.addViews(views);
+                    genrePopularity.addViews(video, views);
+                }
+            });
+        }
+        // the favorite occurrences start from the initial favorite lists, a
+        // user is counted only once for every video
+        for (User user : this.usersData) {
+            if (user.getFavoriteVideos() == null) {
+                continue;
+            }
+            user.getFavoriteVideos().forEach(titleId -> {
+                Video video = getVideo(titleId);
+                if (video != null) {
+                    video.incrementFavorites();
+                }
+            });
+        }
+        this.favoriteIndex = new FavoriteIndex(this.moviesData, this.serialsData);
+        this.ratingLeaderboard = new RatingLeaderboard(this.usersData);
+    }
+
+    /**
+     * @param video a movie or serial of the database
+     * @return the id of the title of the video
+     */
+    private int internTitle(final Video video) {
+        int titleId = this.titles.intern(video.getTitle());
+        if (titleId == this.videosByTitle.size()) {
+            this.videosByTitle.add(video);
+        }
+        return titleId;
+    }
+
+    /**
+     * @param title a title from the input
+     * @return the id of the title or SymbolTable.NO_ID if no video or user
+     *         list has it
+     */
+    public int getTitleId(final String title) {
+        return titles.getId(title);
+    }
+
+    /**
+     * @param title the title of a movie or serial
+     * @return the video with the given title or null if it doesn't exist
+     */
+    public Video getVideo(final String title) {
+        return getVideo(titles.getId(title));
+    }
+
+    /**
+     * @param titleId the id of a title
+     * @return the video with the given title or null if it doesn't exist
+     */
+    public Video getVideo(final int titleId) {
+        if (titleId < 0 || titleId >= videosByTitle.size()) {
+            return null;
+        }
+        return videosByTitle.get(titleId);
+    }
+
+    /**
+     * @param username the name of a user
+     * @return the user with the given name or null if it doesn't exist
+     */
+    public User getUser(final String username) {
+        int id = usernames.getId(username);
+        return id == SymbolTable.NO_ID ? null : usersByName.get(id);
+    }
+
+    /**
+     * @param genre the name of a genre, as it appears in the input
+     * @return the movies of the genre in the order of the database, an empty
+     *         list if the genre doesn't exist
+     */
+    public ArrayList<Movie> getMoviesByGenre(final String genre) {
+        if (genre == null) {
+            return new ArrayList<>();
+        }
+        return filterIndex.filterMovies(null, genre);
+    }
+
+    /**
+     * @param genre the name of a genre, as it appears in the input
+     * @return the serials of the genre in the order of the database, an empty
+     *         list if the genre doesn't exist
+     */
+    public ArrayList<Serial> getSerialsByGenre(final String genre) {
+        if (genre == null) {
+            return new ArrayList<>();
+        }
+        return filterIndex.filterSerials(null, genre);
+    }
+
+    public FilterIndex getFilterIndex() {
+        return filterIndex;
+    }
+
+    public GradeIndex getGradeIndex() {
+        return gradeIndex;
+    }
+
+    public GenreGradeIndex getGenreGradeIndex() {
+        return genreGradeIndex;
+    }
+
+    public FavoriteIndex getFavoriteIndex() {
+        return favoriteIndex;
+    }
+
+    /**
+     * Updates the index of favorite occurrences, called after every
+     * successful favorite command
+     * @param video the movie or serial, null if it isn't in the database
+     */
+    public void updateFavorites(final Video video) {
+        favoritesEpoch++;
+        if (video != null) {
+            favoriteIndex.update(video);
+        }
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public long getViewsEpoch() {
+        return viewsEpoch;
+    }
+
+    public long getRatingsEpoch() {
+        return ratingsEpoch;
+    }
+
+    public long getFavoritesEpoch() {
+        return favoritesEpoch;
+    }
+
+    public DurationIndex getDurationIndex() {
+        return durationIndex;
+    }
+
+    public RatingLeaderboard getRatingLeaderboard() {
+        return ratingLeaderboard;
+    }
+
+    public GenrePopularity getGenrePopularity() {
+        return genrePopularity;
+    }
+
+    /**
+     * Updates the total views of the genres of the video, called after every
+     * view
+     * @param video the viewed movie or serial
+     */
+    public void addGenreViews(final Video video) {
+        viewsEpoch++;
+        genrePopularity.addViews(video, 1);
+    }
+
+    /**
+     * Updates the indexes ordered by grade and by number of ratings, called
+     * after every successful rating
+     * @param user the user who gave the rating
+     * @param video the rated movie or serial
+     */
+    public void updateRatings(final User user, final Video video) {
+        ratingsEpoch++;
+        gradeIndex.update(video);
+        genreGradeIndex.update(video);
+        ratingLeaderboard.update(user);
+    }
+
+    /**
+     * @param name the name of an actor
+     * @return the movies which have the actor in their cast, in the order of
+     *         the database
+     */
+    public ArrayList<Movie> getMoviesByActor(final String name) {
+        int id = actorNames.getId(name);
+        return id == SymbolTable.NO_ID ? new ArrayList<>() : moviesByActor.get(id);
+    }
+
+    /**
+     * @param name the name of an actor
+     * @return the serials which have the actor in their cast, in the order of
+     *         the database
+     */
+    public ArrayList<Serial> getSerialsByActor(final String name) {
+        int id = actorNames.getId(name);
+        return id == SymbolTable.NO_ID ? new ArrayList<>() : serialsByActor.get(id);
     }
 
     public ArrayList<Actor> getActorsData() {
@@ -0,0 +1,76 @@
+package database;
+
+import entities.Movie;
+import entities.Serial;
+import entities.Video;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The movies and the serials sorted once by duration and then by title, the
+ * durations not changing after the database is loaded.
+ */
+public final class DurationIndex {
+    private final ArrayList<Movie> movies;
+    private final ArrayList<Serial> serials;
+
+    /**
+     * @param moviesData the movies of the database, with their ids already set
+     * @param serialsData the serials of the database, with their ids already set
+     */
+    public DurationIndex(final List<Movie> moviesData, final List<Serial> serialsData) {
+        movies = new ArrayList<>(moviesData);
+        movies.sort(Comparator.comparingInt(Movie::getDuration)
+                .thenComparing(Video::getTitle)
+                .thenComparingInt(Video::getId));
+        serials = new ArrayList<>(serialsData);
+        serials.sort(Comparator.comparingInt(Serial::getDuration)
+                .thenComparing(Video::getTitle)
+                .thenComparingInt(Video::getId));
+    }
+
+    /**
+     * @param videos the sorted movies or serials
+     * @param ids the ids of the videos which pass the filters
+     * @param number the number of titles, all of them if it's negative
+     * @param ascending true for the ascending order of durations and titles
+     * @return the titles of the first videos which pass the filters
+     */
+    private static ArrayList<String> longestTitles(final List<? extends Video> videos,
+                                                   final BitSet ids, final int number,
+                                                   final boolean ascending) {
+        ArrayList<String> titles = new ArrayList<>();
+        for (int i = 0; i < videos.size() && (number < 0 || titles.size() < number); i++) {
+            Video video = videos.get(ascending ? i : videos.size() - 1 - i);
+            if (ids.get(video.getId())) {
+                titles.add(video.getTitle());
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * @param ids the ids of the movies which pass the filters
+     * @param number the number of titles, all of them if it's negative
+     * @param ascending true for the ascending order of durations and titles
+     * @return the titles of the first movies which pass the filters
+     */
+    public ArrayList<String> longestMovies(final BitSet ids, final int number,
+                                           final boolean ascending) {
+        return longestTitles(movies, ids, number, ascending);
+    }
+
+    /**
+     * @param ids the ids of the serials which pass the filters
+     * @param number the number of titles, all of them if it's negative
+     * @param ascending true for the ascending order of durations and titles
+     * @return the titles of the first serials which pass the filters
+     */
+    public ArrayList<String> longestSerials(final BitSet ids, final int number,
+                                            final boolean ascending) {
+        return longestTitles(serials, ids, number, ascending);
+    }
+}
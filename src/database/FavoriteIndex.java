@@ -0,0 +1,151 @@
+package database;
+
+import entities.Movie;
+import entities.Serial;
+import entities.User;
+import entities.Video;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The videos which are in at least one favorite list, ordered by their
+ * number of favorite occurrences and kept up to date by the favorite
+ * commands.
+ */
+public final class FavoriteIndex {
+    /**
+     * The favorite occurrences of every video when it was last added to the
+     * sets, by id, so the video can be found in the sets after it has changed
+     */
+    private final int[] favorites;
+    /**
+     * Every video, the most favorite first and then in the order of the
+     * database
+     */
+    private final TreeSet<Video> ranking;
+    /**
+     * The movies and the serials, by favorite occurrences and then by title
+     */
+    private final TreeSet<Video> movies;
+    private final TreeSet<Video> serials;
+
+    /**
+     * @param moviesData the movies of the database, with their ids already set
+     * @param serialsData the serials of the database, with their ids already set
+     */
+    public FavoriteIndex(final List<Movie> moviesData, final List<Serial> serialsData) {
+        favorites = new int[moviesData.size() + serialsData.size()];
+        ranking = new TreeSet<>((first, second) -> {
+            int compare = Integer.compare(favorites[second.getId()], favorites[first.getId()]);
+            if (compare != 0) {
+                return compare;
+            }
+            return Integer.compare(first.getId(), second.getId());
+        });
+        movies = new TreeSet<>(this::compareByTitle);
+        serials = new TreeSet<>(this::compareByTitle);
+        for (Movie movie : moviesData) {
+            update(movie);
+        }
+        for (Serial serial : serialsData) {
+            update(serial);
+        }
+    }
+
+    private int compareByTitle(final Video first, final Video second) {
+        int compare = Integer.compare(favorites[first.getId()], favorites[second.getId()]);
+        if (compare != 0) {
+            return compare;
+        }
+        compare = first.getTitle().compareTo(second.getTitle());
+        if (compare != 0) {
+            return compare;
+        }
+        return Integer.compare(first.getId(), second.getId());
+    }
+
+    /**
+     * Moves the video to the place of its current favorite occurrences,
+     * called after every favorite command
+     * @param video a movie or serial of the database
+     */
+    public void update(final Video video) {
+        TreeSet<Video> byTitle = video instanceof Movie ? movies : serials;
+        ranking.remove(video);
+        byTitle.remove(video);
+        favorites[video.getId()] = video.getFavorites();
+        // the videos which aren't in any favorite list are never returned
+        if (video.getFavorites() != 0) {
+            ranking.add(video);
+            byTitle.add(video);
+        }
+    }
+
+    /**
+     * @param user a user
+     * @return the first video in the order of the database with the most
+     *         favorite occurrences the user hasn't seen, null if there isn't
+     *         one in any favorite list
+     */
+    public Video mostFavoriteUnseen(final User user) {
+        for (Video video : ranking) {
+            if (!user.hasSeen(video.getTitleId())) {
+                return video;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param videos the movies or the serials of the index
+     * @param ids the ids of the videos which pass the filters
+     * @param number the number of titles, all of them if it's negative
+     * @param ascending true for the ascending order of favorite occurrences
+     *                  and titles
+     * @return the titles of the first videos which pass the filters
+     */
+    private static ArrayList<String> favoriteTitles(final TreeSet<Video> videos,
+                                                    final BitSet ids, final int number,
+                                                    final boolean ascending) {
+        ArrayList<String> titles = new ArrayList<>();
+        Iterator<Video> iterator = ascending ? videos.iterator()
+                : videos.descendingIterator();
+        while (iterator.hasNext() && (number < 0 || titles.size() < number)) {
+            Video video = iterator.next();
+            if (ids.get(video.getId())) {
+                titles.add(video.getTitle());
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * @param ids the ids of the movies which pass the filters
+     * @param number the number of titles, all of them if it's negative
+     * @param ascending true for the ascending order of favorite occurrences
+     *                  and titles
+     * @return the titles of the first movies in favorite lists which pass the
+     *         filters
+     */
+    public ArrayList<String> favoriteMovies(final BitSet ids, final int number,
+                                            final boolean ascending) {
+        return favoriteTitles(movies, ids, number, ascending);
+    }
+
+    /**
+     * @param ids the ids of the serials which pass the filters
+     * @param number the number of titles, all of them if it's negative
+     * @param ascending true for the ascending order of favorite occurrences
+     *                  and titles
+     * @return the titles of the first serials in favorite lists which pass the
+     *         filters
+     */
+    public ArrayList<String> favoriteSerials(final BitSet ids, final int number,
+                                             final boolean ascending) {
+        return favoriteTitles(serials, ids, number, ascending);
+    }
+}
@@ -0,0 +1,202 @@
+package database;
+
+import actor.ActorsAwards;
+import entertainment.Genre;
+import entities.Actor;
+import entities.Movie;
+import entities.Serial;
+import entities.Video;
+import utils.Utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bitsets over the ids of the videos and actors, one for every value of the
+ * query filters. The filters of a query are combined with AND and the
+ * entities are taken from the database only once, at the end.
+ */
+public final class FilterIndex {
+    /**
+     * Used for the filter values which no entity has
+     */
+    private static final BitSet EMPTY = new BitSet();
+
+    /**
+     * Every video, the position being the id of the video
+     */
+    private final ArrayList<Video> videos = new ArrayList<>();
+    /**
+     * Every actor, the position being the id of the actor
+     */
+    private final ArrayList<Actor> actors = new ArrayList<>();
+    private final BitSet movieIds = new BitSet();
+    private final BitSet serialIds = new BitSet();
+    private final BitSet actorIds = new BitSet();
+    private final HashMap<Integer, BitSet> videosByYear = new HashMap<>();
+    private final EnumMap<Genre, BitSet> videosByGenre = new EnumMap<>(Genre.class);
+    /**
+     * The genres of the input which have no enum, by their exact name
+     */
+    private final HashMap<String, BitSet> videosByOtherGenre = new HashMap<>();
+    /**
+     * The null key stands for the awards unknown to Utils.stringToAwards
+     */
+    private final HashMap<ActorsAwards, BitSet> actorsByAward = new HashMap<>();
+    private final HashMap<String, BitSet> actorsByWord = new HashMap<>();
+
+    /**
+     * @param movies the movies of the database, with their ids already set
+     * @param serials the serials of the database, with their ids already set
+     * @param actorsData the actors of the database, with their ids already set
+     */
+    public FilterIndex(final List<Movie> movies, final List<Serial> serials,
+                       final List<Actor> actorsData) {
+        for (Genre genre : Genre.values()) {
+            videosByGenre.put(genre, new BitSet());
+        }
+        for (Movie movie : movies) {
+            addVideo(movie);
+            movieIds.set(movie.getId());
+        }
+        for (Serial serial : serials) {
+            addVideo(serial);
+            serialIds.set(serial.getId());
+        }
+        for (Actor actor : actorsData) {
+            actors.add(actor);
+            actorIds.set(actor.getId());
+            for (ActorsAwards award : actor.getAwards().keySet()) {
+                actorsByAward.computeIfAbsent(award, key -> new BitSet()).set(actor.getId());
+            }
+            for (String word : actor.getDescriptionWords()) {
+                actorsByWord.computeIfAbsent(word, key -> new BitSet()).set(actor.getId());
+            }
+        }
+    }
+
+    private void addVideo(final Video video) {
+        videos.add(video);
+        videosByYear.computeIfAbsent(video.getYear(), key -> new BitSet()).set(video.getId());
+        for (Genre genre : video.getGenreSet()) {
+            videosByGenre.get(genre).set(video.getId());
+        }
+        for (String genre : video.getOtherGenres()) {
+            videosByOtherGenre.computeIfAbsent(genre, key -> new BitSet()).set(video.getId());
+        }
+    }
+
+    /**
+     * @param typeIds the ids of the movies or of the serials
+     * @param year the year filter, null if there isn't one
+     * @param genre the genre filter, null if there isn't one
+     * @return the ids of the videos which pass the filters
+     */
+    private BitSet filterVideos(final BitSet typeIds, final String year,
+                                final String genre) {
+        BitSet ids = (BitSet) typeIds.clone();
+        if (year != null) {
+            // the year filter is parsed only once
+            ids.and(videosByYear.getOrDefault(Integer.parseInt(year), EMPTY));
+        }
+        if (genre != null) {
+            Genre genreEnum = Utils.stringToGenre(genre);
+            ids.and(genreEnum == null ? videosByOtherGenre.getOrDefault(genre, EMPTY)
+                    : videosByGenre.get(genreEnum));
+        }
+        return ids;
+    }
+
+    /**
+     * @param year the year filter, null if there isn't one
+     * @param genre the genre filter, null if there isn't one
+     * @return the ids of the movies which pass the filters
+     */
+    public BitSet filterMovieIds(final String year, final String genre) {
+        return filterVideos(movieIds, year, genre);
+    }
+
+    /**
+     * @param year the year filter, null if there isn't one
+     * @param genre the genre filter, null if there isn't one
+     * @return the ids of the serials which pass the filters
+     */
+    public BitSet filterSerialIds(final String year, final String genre) {
+        return filterVideos(serialIds, year, genre);
+    }
+
+    /**
+     * @param year the year filter, null if there isn't one
+     * @param genre the genre filter, null if there isn't one
+     * @return the movies which pass the filters, in the order of the database
+     */
+    public ArrayList<Movie> filterMovies(final String year, final String genre) {
+        BitSet ids = filterMovieIds(year, genre);
+        ArrayList<Movie> movies = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            movies.add((Movie) videos.get(id));
+        }
+        return movies;
+    }
+
+    /**
+     * @param year the year filter, null if there isn't one
+     * @param genre the genre filter, null if there isn't one
+     * @return the serials which pass the filters, in the order of the database
+     */
+    public ArrayList<Serial> filterSerials(final String year, final String genre) {
+        BitSet ids = filterSerialIds(year, genre);
+        ArrayList<Serial> serials = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            serials.add((Serial) videos.get(id));
+        }
+        return serials;
+    }
+
+    /**
+     * @param words the words filter, null if there isn't one
+     * @param awards the awards filter, null if there isn't one
+     * @return the actors which have every award and every word in their
+     *         career description, in the order of the database
+     */
+    public ArrayList<Actor> filterActors(final List<String> words,
+                                         final List<String> awards) {
+        BitSet ids = (BitSet) actorIds.clone();
+        if (awards != null) {
+            for (String award : awards) {
+                ids.and(actorsByAward.getOrDefault(Utils.stringToAwards(award), EMPTY));
+            }
+        }
+        // words with other characters than letters and digits are searched
+        // with a regex, only in the actors which passed the other filters
+        ArrayList<String> regexWords = new ArrayList<>();
+        if (words != null) {
+            for (String word : words) {
+                if (Utils.isIndexableWord(word)) {
+                    ids.and(actorsByWord.getOrDefault(word.toLowerCase(Locale.ROOT), EMPTY));
+                } else {
+                    regexWords.add(word);
+                }
+            }
+        }
+        ArrayList<Actor> filtered = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            Actor actor = actors.get(id);
+            boolean hasWords = true;
+            for (String word : regexWords) {
+                if (!actor.hasWord(word)) {
+                    hasWords = false;
+                    break;
+                }
+            }
+            if (hasWords) {
+                filtered.add(actor);
+            }
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,125 @@
+package database;
+
+import entertainment.Genre;
+import entities.Movie;
+import entities.Serial;
+import entities.User;
+import entities.Video;
+import utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The videos of every genre ordered by the grade used by the search
+ * recommendation, then by title and then by id, kept up to date by the
+ * rating commands.
+ */
+public final class GenreGradeIndex {
+    /**
+     * The grade of every video when it was last added to the sets, by id, so
+     * the video can be found in the sets even after its grade has changed
+     */
+    private final double[] grades;
+    /**
+     * Orders the videos by grade, then by title and then by id
+     */
+    private final Comparator<Video> order;
+    private final EnumMap<Genre, TreeSet<Video>> videosByGenre = new EnumMap<>(Genre.class);
+    /**
+     * The genres of the input which have no enum, by their exact name
+     */
+    private final HashMap<String, TreeSet<Video>> videosByOtherGenre = new HashMap<>();
+
+    /**
+     * @param movies the movies of the database, with their ids already set
+     * @param serials the serials of the database, with their ids already set
+     */
+    public GenreGradeIndex(final List<Movie> movies, final List<Serial> serials) {
+        grades = new double[movies.size() + serials.size()];
+        order = (first, second) -> {
+            int compare = Double.compare(grades[first.getId()], grades[second.getId()]);
+            if (compare != 0) {
+                return compare;
+            }
+            compare = first.getTitle().compareTo(second.getTitle());
+            if (compare != 0) {
+                return compare;
+            }
+            // the movies come before the serials with the same title
+            return Integer.compare(first.getId(), second.getId());
+        };
+        for (Genre genre : Genre.values()) {
+            videosByGenre.put(genre, new TreeSet<>(order));
+        }
+        for (Movie movie : movies) {
+            update(movie);
+        }
+        for (Serial serial : serials) {
+            update(serial);
+        }
+    }
+
+    /**
+     * @param video a movie or serial
+     * @return the grade of the movie or the sum of all the ratings of the
+     *         serial
+     */
+    private static double currentGrade(final Video video) {
+        if (video instanceof Movie) {
+            return ((Movie) video).getGrade();
+        }
+        return ((Serial) video).getGrade();
+    }
+
+    /**
+     * Moves the video to the place of its current grade in the sets of its
+     * genres, called after every rating of the video
+     * @param video a movie or serial of the database
+     */
+    public void update(final Video video) {
+        for (Genre genre : video.getGenreSet()) {
+            videosByGenre.get(genre).remove(video);
+        }
+        for (String genre : video.getOtherGenres()) {
+            videosByOtherGenre.computeIfAbsent(genre, key -> new TreeSet<>(order)).remove(video);
+        }
+        grades[video.getId()] = currentGrade(video);
+        for (Genre genre : video.getGenreSet()) {
+            videosByGenre.get(genre).add(video);
+        }
+        for (String genre : video.getOtherGenres()) {
+            videosByOtherGenre.get(genre).add(video);
+        }
+    }
+
+    /**
+     * @param user a user
+     * @param genre the name of a genre, as it appears in the input
+     * @return the titles of the videos of the genre the user hasn't seen, in
+     *         ascending order of grades and then of titles, an empty list if
+     *         the genre doesn't exist
+     */
+    public ArrayList<String> unseenTitles(final User user, final String genre) {
+        ArrayList<String> titles = new ArrayList<>();
+        if (genre == null) {
+            return titles;
+        }
+        Genre genreEnum = Utils.stringToGenre(genre);
+        TreeSet<Video> videos = genreEnum == null ? videosByOtherGenre.get(genre)
+                : videosByGenre.get(genreEnum);
+        if (videos == null) {
+            return titles;
+        }
+        for (Video video : videos) {
+            if (!user.hasSeen(video.getTitleId())) {
+                titles.add(video.getTitle());
+            }
+        }
+        return titles;
+    }
+}
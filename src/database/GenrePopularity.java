@@ -0,0 +1,117 @@
+package database;
+
+import entities.Movie;
+import entities.Serial;
+import entities.User;
+import entities.Video;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The total views of every genre, kept up to date by the view commands, and
+ * the videos of every genre in the order of the database.
+ */
+public final class GenrePopularity {
+    /**
+     * Every genre name from the input, in the iteration order of a HashMap
+     * filled in the order the names first appear in the database, which
+     * decides the ranking of the genres with the same views
+     */
+    private final ArrayList<String> genreNames;
+    /**
+     * The total views of every genre, by the position of its name
+     */
+    private final long[] views;
+    /**
+     * The positions of the genre names of every video, by id, a name being
+     * counted as many times as it appears in the genres of the video
+     */
+    private final int[][] genresOfVideo;
+    private final ArrayList<ArrayList<Movie>> movies = new ArrayList<>();
+    private final ArrayList<ArrayList<Serial>> serials = new ArrayList<>();
+
+    /**
+     * @param database the database, with the filter index already built
+     * @param moviesData the movies of the database, with their ids already set
+     * @param serialsData the serials of the database, with their ids already set
+     */
+    public GenrePopularity(final Database database, final List<Movie> moviesData,
+                           final List<Serial> serialsData) {
+        ArrayList<Video> videos = new ArrayList<>(moviesData);
+        videos.addAll(serialsData);
+        HashMap<String, Integer> positions = new HashMap<>();
+        for (Video video : videos) {
+            if (video.getGenres() != null) {
+                for (String genre : video.getGenres()) {
+                    positions.putIfAbsent(genre, 0);
+                }
+            }
+        }
+        genreNames = new ArrayList<>(positions.keySet());
+        for (int i = 0; i < genreNames.size(); i++) {
+            positions.put(genreNames.get(i), i);
+            movies.add(database.getMoviesByGenre(genreNames.get(i)));
+            serials.add(database.getSerialsByGenre(genreNames.get(i)));
+        }
+        views = new long[genreNames.size()];
+        genresOfVideo = new int[videos.size()][];
+        for (Video video : videos) {
+            int[] genres = new int[video.getGenres() == null ? 0 : video.getGenres().size()];
+            for (int i = 0; i < genres.length; i++) {
+                genres[i] = positions.get(video.getGenres().get(i));
+            }
+            genresOfVideo[video.getId()] = genres;
+        }
+    }
+
+    /**
+     * @param video a movie or serial of the database
+     * @param count the number of new views of the video
+     */
+    public void addViews(final Video video, final int count) {
+        for (int genre : genresOfVideo[video.getId()]) {
+            views[genre] += count;
+        }
+    }
+
+    /**
+     * @return the positions of the genre names, the most viewed genre first
+     */
+    private ArrayList<Integer> ranking() {
+        ArrayList<Integer> ranking = new ArrayList<>(genreNames.size());
+        // the genres with the same views are ranked in the reverse order of
+        // the names, like the reversed stable sort of the HashMap used to be
+        for (int i = genreNames.size() - 1; i >= 0; i--) {
+            ranking.add(i);
+        }
+        ranking.sort((first, second) -> Long.compare(views[second], views[first]));
+        return ranking;
+    }
+
+    /**
+     * @param user a user
+     * @return the first movie the user hasn't seen from the most viewed genre
+     *         which has one, then the first such serial, or null if there is
+     *         no unseen video with a genre
+     */
+    public Video mostPopularUnseen(final User user) {
+        ArrayList<Integer> ranking = ranking();
+        for (int genre : ranking) {
+            for (Movie movie : movies.get(genre)) {
+                if (!user.hasSeen(movie.getTitleId())) {
+                    return movie;
+                }
+            }
+        }
+        for (int genre : ranking) {
+            for (Serial serial : serials.get(genre)) {
+                if (!user.hasSeen(serial.getTitleId())) {
+                    return serial;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package database;
+
+import entities.Movie;
+import entities.Serial;
+import entities.User;
+import entities.Video;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Every video ordered by the grade used by the best unseen recommendation
+ * and then by id, kept up to date by the rating commands.
+ */
+public final class GradeIndex {
+    /**
+     * The grade of every video when it was last added to the set, by id, so
+     * the video can be found in the set even after its grade has changed
+     */
+    private final double[] grades;
+    private final TreeSet<Video> videos;
+
+    /**
+     * @param movies the movies of the database, with their ids already set
+     * @param serials the serials of the database, with their ids already set
+     */
+    public GradeIndex(final List<Movie> movies, final List<Serial> serials) {
+        grades = new double[movies.size() + serials.size()];
+        videos = new TreeSet<>((first, second) -> {
+            int compare = Double.compare(grades[first.getId()], grades[second.getId()]);
+            if (compare != 0) {
+                return compare;
+            }
+            return Integer.compare(first.getId(), second.getId());
+        });
+        for (Movie movie : movies) {
+            update(movie);
+        }
+        for (Serial serial : serials) {
+            update(serial);
+        }
+    }
+
+    /**
+     * @param video a movie or serial
+     * @return the grade of the movie or the average of the seasons grades of
+     *         the serial
+     */
+    private static double currentGrade(final Video video) {
+        if (video instanceof Movie) {
+            return ((Movie) video).getGrade();
+        }
+        return ((Serial) video).myGetGrade();
+    }
+
+    /**
+     * Moves the video to the place of its current grade, called after every
+     * rating of the video
+     * @param video a movie or serial of the database
+     */
+    public void update(final Video video) {
+        videos.remove(video);
+        grades[video.getId()] = currentGrade(video);
+        videos.add(video);
+    }
+
+    /**
+     * @param video a movie or serial of the database
+     * @return the grade of the video in the index
+     */
+    public double getGrade(final Video video) {
+        return grades[video.getId()];
+    }
+
+    /**
+     * @param user a user
+     * @param descending true to start from the highest grade and the last
+     *                   video of the database
+     * @return the first video the user hasn't seen or null if there isn't one
+     */
+    public Video firstUnseen(final User user, final boolean descending) {
+        Iterator<Video> iterator = descending ? videos.descendingIterator()
+                : videos.iterator();
+        while (iterator.hasNext()) {
+            Video video = iterator.next();
+            if (!user.hasSeen(video.getTitleId())) {
+                return video;
+            }
+        }
+        return null;
+    }
+}
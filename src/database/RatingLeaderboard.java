@@ -0,0 +1,69 @@
+package database;
+
+import entities.User;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The users who have given at least one rating, ordered by their number of
+ * ratings and then by username, kept up to date by the rating commands.
+ */
+public final class RatingLeaderboard {
+    /**
+     * The number of ratings of every user when it was last added to the
+     * set, by id, so the user can be found in the set after it has changed
+     */
+    private final int[] ratings;
+    private final TreeSet<User> users;
+
+    /**
+     * @param usersData the users of the database, with their ids already set
+     */
+    public RatingLeaderboard(final List<User> usersData) {
+        ratings = new int[usersData.size()];
+        users = new TreeSet<>((first, second) -> {
+            int compare = Integer.compare(ratings[first.getId()], ratings[second.getId()]);
+            if (compare != 0) {
+                return compare;
+            }
+            compare = first.getUsername().compareTo(second.getUsername());
+            if (compare != 0) {
+                return compare;
+            }
+            return Integer.compare(first.getId(), second.getId());
+        });
+        for (User user : usersData) {
+            update(user);
+        }
+    }
+
+    /**
+     * Moves the user to the place of their current number of ratings, called
+     * after every rating command
+     * @param user a user of the database
+     */
+    public void update(final User user) {
+        users.remove(user);
+        ratings[user.getId()] = user.getNumberOfRatings();
+        if (ratings[user.getId()] != 0) {
+            users.add(user);
+        }
+    }
+
+    /**
+     * @param number the number of users, all of them if it's negative
+     * @param ascending true for the ascending order of ratings and usernames
+     * @return the usernames of the first users
+     */
+    public ArrayList<String> getUsernames(final int number, final boolean ascending) {
+        ArrayList<String> usernames = new ArrayList<>();
+        Iterator<User> iterator = ascending ? users.iterator() : users.descendingIterator();
+        while (iterator.hasNext() && (number < 0 || usernames.size() < number)) {
+            usernames.add(iterator.next().getUsername());
+        }
+        return usernames;
+    }
+}
@@ -0,0 +1,80 @@
+package database;
+
+import action.Action;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The messages of the queries and recommendations already answered, each
+ * one tagged with the version of the database state it was computed from.
+ * The entries never change once added, so queries running at the same time
+ * can read and fill the cache.
+ */
+public final class ResultCache {
+    /**
+     * Separates the parameters of an action in its key
+     */
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private final long userVersion;
+        private final long epoch;
+        private final String result;
+
+        private Entry(final long userVersion, final long epoch, final String result) {
+            this.userVersion = userVersion;
+            this.epoch = epoch;
+            this.result = result;
+        }
+    }
+
+    /**
+     * @param action a query or a recommendation
+     * @return a key made only of the parameters the action type uses, so the
+     *         actions with the same parameters have the same key
+     */
+    public static String key(final Action action) {
+        StringBuilder key = new StringBuilder(action.getActionType());
+        if (action.getActionType().equals("query")) {
+            key.append(SEPARATOR).append(action.getObjectType())
+                    .append(SEPARATOR).append(action.getCriteria())
+                    .append(SEPARATOR).append(action.getSortType())
+                    .append(SEPARATOR).append(action.getNumber())
+                    .append(SEPARATOR).append(action.getFilters());
+        } else {
+            key.append(SEPARATOR).append(action.getType())
+                    .append(SEPARATOR).append(action.getUsername())
+                    .append(SEPARATOR).append(action.getGenre());
+        }
+        return key.toString();
+    }
+
+    /**
+     * @param key the key of the action
+     * @param userVersion the current version of the user the action reads, 0
+     *                    for the queries
+     * @param epoch the current epoch of the totals the action reads
+     * @return the cached message or null if there isn't one for this pair of
+     *         versions
+     */
+    public String get(final String key, final long userVersion, final long epoch) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.userVersion != userVersion || entry.epoch != epoch) {
+            return null;
+        }
+        return entry.result;
+    }
+
+    /**
+     * @param key the key of the action
+     * @param userVersion the version of the user the message was computed from
+     * @param epoch the epoch of the totals the message was computed from
+     * @param result the message of the action
+     */
+    public void put(final String key, final long userVersion, final long epoch,
+                    final String result) {
+        entries.put(key, new Entry(userVersion, epoch, result));
+    }
+}
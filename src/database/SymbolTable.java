@@ -0,0 +1,37 @@
+package database;
+
+import java.util.HashMap;
+
+/**
+ * Gives every distinct string a dense int id, in the order the strings are
+ * interned, so the entities can be kept and looked up by id.
+ */
+public final class SymbolTable {
+    /**
+     * Returned for the strings which were never interned
+     */
+    public static final int NO_ID = -1;
+
+    private final HashMap<String, Integer> ids = new HashMap<>();
+
+    /**
+     * @param name the string to be interned
+     * @return the id of the string, a new one if it wasn't interned before
+     */
+    public int intern(final String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = ids.size();
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * @param name a string
+     * @return the id of the string or NO_ID if it was never interned
+     */
+    public int getId(final String name) {
+        return ids.getOrDefault(name, NO_ID);
+    }
+}
@@ -2,6 +2,9 @@ package entities;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import database.Database;
@@ -17,6 +20,19 @@ public final class Actor {
     private Double rating;
     private Double avgRate;
     private Integer totalAwards;
+    /**
+     * The lowercase words of the career description, split once at load
+     */
+    private final HashSet<String> descriptionWords;
+    /**
+     * Dense id of the actor, given by the database
+     */
+    private int id = -1;
+    /**
+     * The movies and serials which have the actor in their cast
+     */
+    private final ArrayList<Movie> movies = new ArrayList<>();
+    private final ArrayList<Serial> serials = new ArrayList<>();
 
     public Actor(final String name, final String careerDescription,
                  final ArrayList<String> filmography,
@@ -28,6 +44,7 @@ public final class Actor {
         rating = 0.0;
         avgRate = 0.0;
         totalAwards = 0;
+        descriptionWords = Utils.getDescriptionWords(careerDescription);
     }
 
     public String getName() {
@@ -54,6 +71,22 @@ public final class Actor {
         return careerDescription;
     }
 
+    public HashSet<String> getDescriptionWords() {
+        return descriptionWords;
+    }
+
+    /**
+     * @param word the filter word
+     * @return true if the career description contains the word
+     */
+    public boolean hasWord(final String word) {
+        if (Utils.isIndexableWord(word)) {
+            return descriptionWords.contains(word.toLowerCase(Locale.ROOT));
+        }
+        // words with other characters are still searched with a regex
+        return Utils.getWord(careerDescription, word);
+    }
+
     public Double getRatings() {
         return rating;
     }
@@ -74,6 +107,55 @@ public final class Actor {
         this.avgRate = rate / noRoles;
     }
 
+    /**
+     * @param actorMovies the movies which have the actor in their cast
+     * @param actorSerials the serials which have the actor in their cast
+     */
+    public void setRoles(final ArrayList<Movie> actorMovies,
+                         final ArrayList<Serial> actorSerials) {
+        this.movies.clear();
+        this.movies.addAll(actorMovies);
+        this.serials.clear();
+        this.serials.addAll(actorSerials);
+    }
+
+    /**
+     * Recalculates the average rate of the actor from its rated movies and
+     * serials, in the same order as before, called every time one of them
+     * is rated
+     */
+    public void updateAverage() {
+        double rate = 0.0; // rate of movies in which an actor has played in
+        int count = 0;
+        for (Movie movie : movies) {
+            if (movie.getGrade() != 0) {
+                // adding to rate
+                rate += movie.getGrade();
+                // counting the number of movies
+                count++;
+            }
+        }
+        // doing the same for serials
+        for (Serial serial : serials) {
+            if (serial.getGrade() != 0) {
+                rate += serial.getFinalGrade();
+                count++;
+            }
+        }
+        if (count != 0) {
+            // setting the average rate of an actor
+            setAvgRate(rate, count);
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(final int id) {
+        this.id = id;
+    }
+
     public Integer getTotalAwards() {
         return totalAwards;
     }
@@ -88,60 +170,22 @@ public final class Actor {
      * @return an arraylist of Strings, which has the names of actors
      */
     public static ArrayList<String> average(final Database database, final Action action) {
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
         ArrayList<Actor> actors = filterActors(database, action);
-        double rate;
-        int count;
-        for (Actor actor : actors) {
-            count = 0;
-            rate = 0.0; // rate of movies in which an actor has played in
-            for (Movie movie : movies) {
-                // verifying if the movie cast contains the actor
-                if (movie.getCast().contains(actor.getName())) {
-                    if (movie.getGrade() != 0) {
-                        // adding to rate
-                        rate += movie.getGrade();
-                        // counting the number of movies
-                        count++;
-                    }
-                }
-            }
-            // doing the same for serials
-            for (Serial serial : database.getSerialsData()) {
-                if (serial.getCast().contains(actor.getName())) {
-                    if (serial.getGrade() != 0) {
-                        rate += serial.getFinalGrade();
-                        count++;
-                    }
-                }
-            }
-            if (count != 0) {
-                // setting the average rate of an actor
-                actor.setAvgRate(rate, count);
-            }
-        }
+        // the average rate of every actor is kept up to date by the ratings
         actors.removeIf(actor ->
                         actor.getAvgRate() == 0);
         // sorting by average rate
         Comparator<Actor> comparator = Comparator.comparing(Actor::getAvgRate);
         // 2nd criteria is the name
         comparator = comparator.thenComparing(Actor::getName);
-        actors.sort(comparator);
         if (!action.getSortType().equals("asc")) {
-            Collections.reverse(actors);
+            comparator = comparator.reversed();
         }
         ArrayList<String> actorsReturn = new ArrayList<>();
-        int i = 0;
-        // indexing through actors
-        for (Actor actor : actors) {
-            // stop if all actors wanted are added
-            if (i == action.getNumber()) {
-                break;
-            } else if (actor.getAvgRate() != 0) {
-                // adding to the list of names
-                actorsReturn.add(actor.getName());
-                i++;
-            }
+        // selecting only the first action.getNumber() actors
+        for (Actor actor : Utils.topK(actors, action.getNumber(), comparator)) {
+            // adding to the list of names
+            actorsReturn.add(actor.getName());
         }
         return actorsReturn;
     }
@@ -154,32 +198,18 @@ public final class Actor {
      */
     public static ArrayList<Actor> filterActors(final Database database,
                                                 final Action action) {
-        ArrayList<Actor> actors = new ArrayList<>(database.getActorsData());
         // magic number
-        int magicNumber = 3;
-        if (action.getFilters().get(magicNumber) != null) {
-            for (String award : action.getFilters().get(magicNumber)) {
-                // if an actor does not contain an award, remove it from the
-                // arraylist
-                actors.removeIf(actor ->
-                        !actor.getAwards().containsKey(Utils
-                                .stringToAwards(award)));
-            }
-        }
-        magicNumber = 2;
-        if (action.getFilters().get(magicNumber) != null) {
-            for (String word : action.getFilters().get(magicNumber)) {
-                // if an actor does not contain a filter word, remove it from
-                // the arraylist
-                actors.removeIf(actor ->
-                        !Utils.getWord(actor.getCareerDescription(), word));
-            }
-        }
-        return actors;
+        int magicNumber = 2;
+        List<String> words = action.getFilters().get(magicNumber);
+        magicNumber = 3;
+        List<String> awards = action.getFilters().get(magicNumber);
+        // the awards and words filters are intersected in the filter index
+        return database.getFilterIndex().filterActors(words, awards);
     }
 
     /**
-     * @param actor an actor, who will have his awards calculated
+     * @param actor an actor, who will have his awards calculated, called once
+     *              for every actor when the database is built
      */
     public static void setActorAwards(final Actor actor) {
         int sum = 0;
@@ -212,10 +242,7 @@ public final class Actor {
     public static ArrayList<String> actorAwards(final Database database,
                                                 final Action action) {
         ArrayList<Actor> actors = filterActors(database, action);
-        // setting the awards number for every actor
-        for (Actor actor : actors) {
-            setActorAwards(actor);
-        }
+        // the awards number of every actor is set when the database is built
         if (actors.size() == 0) {
             return null;
         } else {
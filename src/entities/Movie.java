@@ -1,31 +1,27 @@
 package entities;
 import action.Action;
 import database.Database;
+import utils.Utils;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.Comparator;
-import java.util.Objects;
-
-import static java.lang.Integer.valueOf;
 
 
 public final class Movie extends Video {
     private final int duration;
-    private Integer views;
-    private ArrayList<Double> ratings;
-    private Double grade;
-    private Integer isFavorite;
+    private double ratingsSum;
+    private int ratingsCount;
+    private double grade;
     private Integer popularity;
 
     public Movie(final String title, final int year, final ArrayList<String> cast,
                  final ArrayList<String> genres, final int duration) {
         super(title, year, cast, genres);
         this.duration = duration;
-        this.views = 0;
         this.grade = 0.0;
-        ratings = new ArrayList<>();
-        isFavorite = 0;
+        ratingsSum = 0.0;
+        ratingsCount = 0;
         popularity = 0;
     }
 
@@ -33,24 +29,15 @@ public final class Movie extends Video {
         return duration;
     }
 
-    public Integer getViews() {
-        return views;
-    }
-
-    public void setViews(final Integer views) {
-        this.views = views;
-    }
-
     /**
+     * @param rating a new rating for the movie, the grade being updated with
+     *               the running sum and count of the ratings
      */
-    public void getFinalGrade() {
-        double sum = 0;
-        for (Double rating : this.ratings) {
-            sum += rating;
-        }
-        if (this.ratings.size() != 0) {
-            this.setGrade(sum  / this.ratings.size());
-        }
+    public void addRating(final double rating) {
+        this.ratingsSum += rating;
+        this.ratingsCount++;
+        this.grade = this.ratingsSum / this.ratingsCount;
+        updateCastAverages();
     }
 
     /**
@@ -60,11 +47,9 @@ public final class Movie extends Video {
      */
     public static Movie getMovie(final Database database,
                                  final Action action) {
-        ArrayList<Movie> movies = database.getMoviesData();
-        for (Movie movie : movies) {
-            if (Objects.equals(movie.getTitle(), action.getTitle())) {
-                return movie;
-            }
+        Video video = database.getVideo(action.getTitle());
+        if (video instanceof Movie) {
+            return (Movie) video;
         }
         return null;
     }
@@ -77,30 +62,10 @@ public final class Movie extends Video {
         this.popularity = popularity;
     }
 
-    public ArrayList<Double> getRatings() {
-        return ratings;
-    }
-
-    public Double getGrade() {
+    public double getGrade() {
         return grade;
     }
 
-    public void setGrade(final Double grade) {
-        this.grade = grade;
-    }
-
-    public void setRatings(final ArrayList<Double> ratings) {
-        this.ratings = ratings;
-    }
-
-    public Integer getIsFavorite() {
-        return isFavorite;
-    }
-
-    public void setIsFavorite(final Integer isFavorite) {
-        this.isFavorite = isFavorite;
-    }
-
 
     /**
      * @param database database which contains info about every entity
@@ -109,27 +74,10 @@ public final class Movie extends Video {
      */
     public static ArrayList<Movie> filterMovies(final Database database,
                                                 final Action action) {
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
-        // magic number
-        int magicNumber = 0;
-        if (action.getFilters().get(magicNumber).get(0) != null) {
-            for (String year : action.getFilters().get(magicNumber)) {
-                // if an actor does not contain an award, remove it from the
-                // arraylist
-                movies.removeIf(movie ->
-                        !(movie.getYear() == Integer.valueOf(year)));
-            }
-        }
-        magicNumber = 1;
-        if (action.getFilters().get(magicNumber).get(0) != null) {
-            for (String genre : action.getFilters().get(magicNumber)) {
-                // if an actor does not contain a filter word, remove it from
-                // the arraylist
-                movies.removeIf(movie ->
-                                !movie.getGenres().contains(genre));
-            }
-        }
-        return movies;
+        String year = action.getFilters().get(0).get(0);
+        String genre = action.getFilters().get(1).get(0);
+        // the year and genre filters are intersected in the filter index
+        return database.getFilterIndex().filterMovies(year, genre);
     }
 
     /**
@@ -139,53 +87,13 @@ public final class Movie extends Video {
      */
     public static ArrayList<String> favoriteMovie(final Database database,
                                                   final Action action) {
-        // importedLollies you naughty, naughty
-        ArrayList<Movie> movies = filterMovies(database, action);
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
-        // setting the number of favorite occurrences
-        mySetIsFavorites(movies, users);
-        movies.removeIf(movie ->
-                movie.getIsFavorite() == 0);
-        // sorting by the number of favorite occurrences
-        Comparator<Movie> comparator;
-        comparator = Comparator.comparing(Movie::getIsFavorite);
-        // 2nd criteria is title
-        comparator = comparator.thenComparing(Video::getTitle);
-        movies.sort(comparator);
-        // reversing the list if the sort type is descending
-        if (!action.getSortType().equals("asc")) {
-            Collections.reverse(movies);
-        }
-        ArrayList<String> titles = new ArrayList<>();
-        int i = 0;
-        for (Movie movie : movies) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                i++;
-                titles.add(movie.getTitle());
-            }
-        }
-        return titles;
-    }
-
-    /**
-     * @param movies arraylist of movies
-     * @param users arraylist of users
-     * This function calculates the occurrences of a movie in users favorites
-     * list
-     */
-    public static void mySetIsFavorites(final ArrayList<Movie> movies,
-                                  final ArrayList<User> users) {
-        for (Movie movie : movies) {
-            int favorites = 0;
-            for (User user : users) {
-                if (user.getFavoriteVideos().contains(movie.getTitle())) {
-                    favorites++;
-                }
-            }
-            movie.setIsFavorite(favorites);
-        }
+        String year = action.getFilters().get(0).get(0);
+        String genre = action.getFilters().get(1).get(0);
+        // the movies are already ordered by the number of favorite
+        // occurrences and then by title, so only the filters are checked
+        BitSet ids = database.getFilterIndex().filterMovieIds(year, genre);
+        return database.getFavoriteIndex().favoriteMovies(ids, action.getNumber(),
+                action.getSortType().equals("asc"));
     }
 
     /**
@@ -195,30 +103,13 @@ public final class Movie extends Video {
      */
     public static ArrayList<String> longestMovie(final Database database,
                                                  final Action action) {
-        ArrayList<Movie> movies = filterMovies(database, action);
-        ArrayList<String> titles = new ArrayList<>();
-        String sortType = action.getSortType();
-        Comparator<Movie> comparator;
-        // sorting by duration
-        comparator = Comparator.comparing(Movie::getDuration);
-        // 2nd criteria is the title
-        comparator = comparator.thenComparing(Video::getTitle);
-        movies.sort(comparator);
-        // if sort type is desc, reverse the arraylist
-        if (!sortType.equals("asc")) {
-            Collections.reverse(movies);
-        }
-        int i = 0;
-        for (Movie movie : movies) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                titles.add(movie.getTitle());
-                i++;
-            }
-        }
-
-        return titles;
+        String year = action.getFilters().get(0).get(0);
+        String genre = action.getFilters().get(1).get(0);
+        // the movies are already sorted by duration and then by title, so
+        // only the filters are checked
+        BitSet ids = database.getFilterIndex().filterMovieIds(year, genre);
+        return database.getDurationIndex().longestMovies(ids, action.getNumber(),
+                action.getSortType().equals("asc"));
     }
 
     /**
@@ -228,48 +119,27 @@ public final class Movie extends Video {
      */
     public static ArrayList<String> ratingMovies(final Database database,
                                                  final Action action) {
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
         ArrayList<String> titles = new ArrayList<>();
+        // the movies must have the filter genre
+        if (action.getFilters().get(1).get(0) == null) {
+            return titles;
+        }
+        // the year and genre filters go through the database indexes
+        ArrayList<Movie> movies = filterMovies(database, action);
+        movies.removeIf(movie -> movie.getGrade() == 0);
         Comparator<Movie> comparator;
         // sorting by grades
         comparator = Comparator.comparing(Movie::getGrade);
         // 2nd criteria is the title
         comparator = comparator.thenComparing(Video::getTitle);
-        movies.sort(comparator);
-        // reverse the arraylist so the first one is the highest ranked
-        Collections.reverse(movies);
-        for (Movie movie : movies) {
-            ArrayList<String> genres = movie.getGenres();
-            Integer year = movie.getYear();
-            Integer actionYear = valueOf(action.getFilters().get(0).get(0));
-            // verifying filters
-            if (movie.getGrade() != 0
-                    && genres.contains(action.getFilters().get(1).get(0))
-                    && year.equals(actionYear)) {
-                titles.add(movie.getTitle());
-            }
+        // this query ignores the number and the sort type, the highest
+        // ranked movie always being the first one
+        for (Movie movie : Utils.topK(movies, -1, comparator.reversed())) {
+            titles.add(movie.getTitle());
         }
         return titles;
     }
 
-    /**
-     * @param movies arraylist of movies
-     * @param users arraylist of users
-     * This function sets views for a movie from every user
-     */
-    public static void mySetViews(final ArrayList<Movie> movies,
-                                  final ArrayList<User> users) {
-        for (Movie movie : movies) {
-            int totalViews = 0;
-            for (User user : users) {
-                if (user.getHistory().get(movie.getTitle()) != null) {
-                    totalViews += user.getHistory().get(movie.getTitle());
-                }
-            }
-            movie.setViews(totalViews);
-        }
-    }
-
     /**
      * @param database database which contains info about every entity
      * @param action the action to be executed
@@ -279,30 +149,22 @@ public final class Movie extends Video {
     public static ArrayList<String> mostViewed(final Database database,
                                                final Action action) {
         ArrayList<Movie> movies = filterMovies(database, action);
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
         ArrayList<String> titles = new ArrayList<>();
-        // using mySetViews to set the views for every movie
-        mySetViews(movies, users);
+        // the total views are kept up to date by every view command
         movies.removeIf(movie ->
                         movie.getViews() == 0);
         Comparator<Movie> comparator;
         // sorting by the number of views
-        comparator = Comparator.comparing(Movie::getViews);
+        comparator = Comparator.comparingInt(Movie::getViews);
         // 2nd criteria is the title
         comparator = comparator.thenComparing(Video::getTitle);
-        movies.sort(comparator);
-        // reverse if sort type is desc so the first is the most viewed
+        // if sort type is desc, the order is reversed
         if (!action.getSortType().equals("asc")) {
-            Collections.reverse(movies);
+            comparator = comparator.reversed();
         }
-        int i = 0;
-        for (Movie movie : movies) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                i++;
-                titles.add(movie.getTitle());
-            }
+        // selecting only the first action.getNumber() elements
+        for (Movie movie : Utils.topK(movies, action.getNumber(), comparator)) {
+            titles.add(movie.getTitle());
         }
         return titles;
     }
@@ -312,10 +174,10 @@ public final class Movie extends Video {
         return "Movie{"
                 + "duration="
                 + duration
-                + ", views=" + views
-                + ", ratings=" + ratings
+                + ", views=" + getViews()
+                + ", ratings=" + ratingsCount
                 + ", grade=" + grade
-                + ", isFavorite=" + isFavorite
+                + ", favorites=" + getFavorites()
                 + ", popularity=" + popularity
                 + '}';
     }
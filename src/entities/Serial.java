@@ -2,21 +2,29 @@ package entities;
 
 import action.Action;
 import database.Database;
+import utils.Utils;
 import entertainment.Season;
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.BitSet;
 import java.util.Comparator;
-import java.util.Collections;
 
 
 public final class Serial extends Video {
     private final int numberOfSeasons;
     private final ArrayList<Season> seasons;
-    private Integer views;
-    private Double grade;
-    private Double finalGrade;
-    private Integer duration;
-    private Integer isFavorite;
+    private double grade;
+    private double seasonsGrade;
+    /**
+     * The running sum and count of the ratings of every season, by the index
+     * of the season
+     */
+    private final double[] seasonRatingsSum;
+    private final int[] seasonRatingsCount;
+    /**
+     * The sum of the durations of the seasons, computed when the serial is
+     * loaded
+     */
+    private final int duration;
 
     public Serial(final String title, final ArrayList<String> cast,
                   final ArrayList<String> genres,
@@ -26,11 +34,18 @@ public final class Serial extends Video {
         super(title, year, cast, genres);
         this.numberOfSeasons = numberOfSeasons;
         this.seasons = seasons;
-        views = 0;
         grade = 0.0;
-        finalGrade = 0.0;
-        duration = 0;
-        isFavorite = 0;
+        seasonsGrade = 0.0;
+        seasonRatingsSum = new double[seasons == null ? 0 : seasons.size()];
+        seasonRatingsCount = new int[seasonRatingsSum.length];
+        int sum = 0;
+        if (seasons != null) {
+            updateSeasonsGrade();
+            for (Season season : seasons) {
+                sum += season.getDuration();
+            }
+        }
+        duration = sum;
     }
 
     public int getNumberSeason() {
@@ -48,36 +63,45 @@ public final class Serial extends Video {
      */
     public static Serial getSerial(final Database database,
                                    final Action action) {
-        ArrayList<Serial> serials = database.getSerialsData();
-        for (Serial serial : serials) {
-            if (Objects.equals(serial.getTitle(), action.getTitle())) {
-                return serial;
-            }
+        Video video = database.getVideo(action.getTitle());
+        if (video instanceof Serial) {
+            return (Serial) video;
         }
         return null;
     }
 
     /**
-     * @return a final grade for a serial
+     * @return a final grade for a serial, the average of the seasons grades
+     */
+    public double myGetGrade() {
+        return this.seasonsGrade;
+    }
+
+    /**
+     * @param index the index of the rated season
+     * @param rating the rating given to the season
+     */
+    public void addSeasonRating(final int index, final double rating) {
+        this.seasonRatingsSum[index] += rating;
+        this.seasonRatingsCount[index]++;
+        updateSeasonsGrade();
+        updateCastAverages();
+    }
+
+    /**
+     * Recalculates the final grade of the serial from the running averages
+     * of its seasons
      */
-    public Double myGetGrade() {
-        double x;
+    private void updateSeasonsGrade() {
         double y = 0.0;
         // iterating through the seasons of a serial
-        for (Season season : seasons) {
-            x = 0.0;
-            for (Double rating : season.getRatings()) {
-                // adding the rating of every season
-                x += rating;
-            }
-            if (season.getRatings().size() != 0) {
+        for (int i = 0; i < seasonRatingsCount.length; i++) {
+            if (seasonRatingsCount[i] != 0) {
                 // y is the rating of every season
-                y += x / season.getRatings().size();
+                y += seasonRatingsSum[i] / seasonRatingsCount[i];
             }
         }
-        // returning the final grade
-        this.finalGrade = y / this.numberOfSeasons;
-        return this.finalGrade;
+        this.seasonsGrade = y / this.numberOfSeasons;
     }
 
     /**
@@ -87,68 +111,20 @@ public final class Serial extends Video {
         this.grade += action.getGrade();
     }
 
-    public Integer getDuration() {
+    public int getDuration() {
         return duration;
     }
 
-    public void setDuration(final Integer duration) {
-        this.duration = duration;
-    }
-
     public double getGrade() {
         return this.grade;
     }
 
     /**
-     * @return the final grade
+     * @return the final grade, the sum of the ratings divided by the number
+     *         of seasons, computed without changing the serial
      */
     public double getFinalGrade() {
-        this.finalGrade = this.grade / this.getNumberSeason();
-        return this.finalGrade;
-    }
-
-    /**
-     * @param serial calculates and return a serial duration
-     * @return the duration
-     */
-    public static Integer getSerialDuration(final Serial serial) {
-            int sum = 0;
-            for (Season season : serial.getSeasons()) {
-                sum += season.getDuration();
-            }
-            serial.setDuration(sum);
-            return serial.getDuration();
-    }
-
-    /**
-     * @param serials arraylist of serials
-     * @param users arraylist of users
-     */
-    public static void mySerialSetViews(final ArrayList<Serial> serials,
-                                        final ArrayList<User> users) {
-        setSerialViews(serials, users);
-    }
-
-    private static void setSerialViews(final ArrayList<Serial> serials,
-                                       final ArrayList<User> users) {
-        for (Serial serial : serials) {
-            int totalViews = 0;
-            for (User user : users) {
-                if (user.getHistory().get(serial.getTitle()) != null) {
-                    totalViews += user.getHistory().get(serial.getTitle());
-                }
-            }
-            serial.setViews(totalViews);
-        }
-    }
-
-
-    public Integer getIsFavorite() {
-        return isFavorite;
-    }
-
-    public void setIsFavorite(final Integer isFavorite) {
-        this.isFavorite = isFavorite;
+        return this.grade / this.getNumberSeason();
     }
 
     /**
@@ -158,27 +134,10 @@ public final class Serial extends Video {
      */
     public static ArrayList<Serial> filterSerial(final Database database,
                                                 final Action action) {
-        ArrayList<Serial> serials = new ArrayList<>(database.getSerialsData());
-        // magic number
-        int magicNumber = 0;
-        if (action.getFilters().get(magicNumber).get(0) != null) {
-            for (String year : action.getFilters().get(magicNumber)) {
-                // if an actor does not contain an award, remove it from the
-                // arraylist
-                serials.removeIf(serial ->
-                        serial.getYear() != Integer.valueOf(year));
-            }
-        }
-        magicNumber = 1;
-        if (action.getFilters().get(magicNumber).get(0) != null) {
-            for (String genre : action.getFilters().get(magicNumber)) {
-                // if an actor does not contain a filter word, remove it from
-                // the arraylist
-                serials.removeIf(serial ->
-                        !serial.getGenres().contains(genre));
-            }
-        }
-        return serials;
+        String year = action.getFilters().get(0).get(0);
+        String genre = action.getFilters().get(1).get(0);
+        // the year and genre filters are intersected in the filter index
+        return database.getFilterIndex().filterSerials(year, genre);
     }
 
 
@@ -190,34 +149,13 @@ public final class Serial extends Video {
      */
     public static ArrayList<String> longestSerial(final Database database,
                                                   final Action action) {
-        ArrayList<Serial> serials = filterSerial(database, action);
-        ArrayList<String> titles = new ArrayList<>();
-        String sortType = action.getSortType();
-        // setting the duration for every serial
-        for (Serial serial : serials) {
-            serial.setDuration(Serial.getSerialDuration(serial));
-        }
-        Comparator<Serial> comparator;
-        // sorting by duration
-        comparator = Comparator.comparing(Serial::getDuration);
-        // 2nd criteria is the title
-        comparator = comparator.thenComparing(Video::getTitle);
-        serials.sort(comparator);
-        // if sort type is desc, reverse the arraylist
-        if (!sortType.equals("asc")) {
-            Collections.reverse(serials);
-        }
-        int i = 0;
-        for (Serial serial : serials) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                i++;
-                titles.add(serial.getTitle());
-            }
-        }
-        // iterate through the serials
-        return titles;
+        String year = action.getFilters().get(0).get(0);
+        String genre = action.getFilters().get(1).get(0);
+        // the durations are computed when the serials are loaded and the
+        // serials are already sorted by them, so only the filters are checked
+        BitSet ids = database.getFilterIndex().filterSerialIds(year, genre);
+        return database.getDurationIndex().longestSerials(ids, action.getNumber(),
+                action.getSortType().equals("asc"));
     }
 
     /**
@@ -227,57 +165,13 @@ public final class Serial extends Video {
      */
     public static ArrayList<String> favoriteSerial(final Database database,
                                                    final Action action) {
-        ArrayList<Serial> serials = filterSerial(database, action);
-        ArrayList<User> users = database.getUsersData();
-        // calculating the number of favorite occurrences in ever user's
-        // favorite videos
-        mySetIsFavoriteSerial(serials, users);
-
-        Comparator<Serial> comparator;
-        // sort by number of favorite occurrences
-        comparator = Comparator.comparing(Serial::getIsFavorite);
-        // 2nd criteria is the title
-        comparator = comparator.thenComparing(Video::getTitle);
-        serials.sort(comparator);
-
-        // if sort type is desc, reverse the arraylist
-        if (!action.getSortType().equals("asc")) {
-            Collections.reverse(serials);
-        }
-
-        ArrayList<String> titles = new ArrayList<>();
-        int i = 0;
-        for (Serial serial : serials) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                i++;
-                titles.add(serial.getTitle());
-            }
-        }
-        // iterate through the serials
-
-        return titles;
-    }
-
-    /**
-     * @param serials Serials array
-     * @param users Users array
-     * This function calculates the total number of favorite occurrences
-     */
-    public static void mySetIsFavoriteSerial(final ArrayList<Serial> serials,
-                                  final ArrayList<User> users) {
-        for (Serial serial : serials) {
-            int favorites = 0;
-            for (User user : users) {
-                if (user.getFavoriteVideos().contains(serial.getTitle())) {
-                    favorites++;
-                }
-            }
-            serial.setIsFavorite(favorites);
-        }
-        serials.removeIf(serial ->
-                serial.getIsFavorite() == 0);
+        String year = action.getFilters().get(0).get(0);
+        String genre = action.getFilters().get(1).get(0);
+        // the serials are already ordered by the number of favorite
+        // occurrences and then by title, so only the filters are checked
+        BitSet ids = database.getFilterIndex().filterSerialIds(year, genre);
+        return database.getFavoriteIndex().favoriteSerials(ids, action.getNumber(),
+                action.getSortType().equals("asc"));
     }
 
     /**
@@ -290,30 +184,20 @@ public final class Serial extends Video {
         ArrayList<Serial> serials = filterSerial(database, action);
         Comparator<Serial> comparator;
         // sort by grades
-        for (Serial serial : serials) {
-            serial.myGetGrade();
-        }
         serials.removeIf(serial ->
                         serial.getGrade() == 0);
         comparator = Comparator.comparing(Serial::getGrade);
         // 2nd criteria is the title
         comparator = comparator.thenComparing(Video::getTitle);
-        serials.sort(comparator);
 
-        // if sort type is desc, reverse the arraylist
+        // if sort type is desc, the order is reversed
         if (!action.getSortType().equals("asc")) {
-            Collections.reverse(serials);
+            comparator = comparator.reversed();
         }
         ArrayList<String> titles = new ArrayList<>();
-        // iterate through the serials
-        int i = 0;
-        for (Serial serial : serials) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                titles.add(serial.getTitle());
-                i++;
-            }
+        // selecting only the first action.getNumber() elements
+        for (Serial serial : Utils.topK(serials, action.getNumber(), comparator)) {
+            titles.add(serial.getTitle());
         }
         return titles;
     }
@@ -326,30 +210,24 @@ public final class Serial extends Video {
     public static ArrayList<String> mostViewedSerial(final Database database,
                                                      final Action action) {
         ArrayList<Serial> serials = filterSerial(database, action);
-        ArrayList<User> users = database.getUsersData();
-        // setting the views
-        setSerialViews(serials, users);
+        // the total views are kept up to date by every view command
         serials.removeIf(serial ->
                         serial.getViews() == 0);
         Comparator<Serial> comparator;
         // sort by the views
-        comparator = Comparator.comparing(Serial::getViews);
+        comparator = Comparator.comparingInt(Serial::getViews);
         // 2nd criteria is the title
         comparator = comparator.thenComparing(Video::getTitle);
-        serials.sort(comparator);
-        // if sort type is desc, reverse the arraylist
+        // if sort type is desc, the order is reversed
         if (!action.getSortType().equals("asc")) {
-            Collections.reverse(serials);
+            comparator = comparator.reversed();
         }
         ArrayList<String> titles = new ArrayList<>();
-        int i = 0;
-        // iterate through the serials
-        for (Serial serial : serials) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                titles.add(serial.getTitle());
-            }
+        // this query ignores the number and returns every serial, except for
+        // the number 0 which returns none
+        int limit = action.getNumber() == 0 ? 0 : -1;
+        for (Serial serial : Utils.topK(serials, limit, comparator)) {
+            titles.add(serial.getTitle());
         }
         return titles;
     }
@@ -366,13 +244,5 @@ public final class Serial extends Video {
                 + grade + " \n";
     }
 
-    public Integer getViews() {
-        return views;
-    }
-
-    public void setViews(final Integer views) {
-        this.views = views;
-    }
-
 
 }
@@ -1,74 +1,97 @@
 package entities;
 import action.Action;
 import database.Database;
+import database.GradeIndex;
+import utils.IntIntMap;
+import utils.IntSet;
 
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.Comparator;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 public final class User {
     private final String username;
     private final String subscriptionType;
-    private final Map<String, Integer> history;
-    private final ArrayList<String> favoriteVideos;
-    private final ArrayList<String> ratedVideos = new ArrayList<>();
-    private HashMap<String, ArrayList<Integer>> ratedSeasons = new HashMap<>();
+    /**
+     * The views of every seen video, by the title id from the database
+     */
+    private final IntIntMap history;
+    /**
+     * The title ids of the favorite videos
+     */
+    private final IntSet favoriteVideos;
+    /**
+     * The title ids of the rated videos
+     */
+    private final IntSet ratedVideos = new IntSet();
+    /**
+     * Number of ratings given, every season of a serial counting separately
+     */
+    private int numberOfRatings = 0;
+    /**
+     * The rated seasons of every serial, by title id, a bit for every season
+     */
+    private final HashMap<Integer, BitSet> ratedSeasons = new HashMap<>();
+    /**
+     * A bit for every seen title id, the title ids of the videos following
+     * the order of the database
+     */
+    private final BitSet seen = new BitSet();
+    /**
+     * Position of the user in the database
+     */
+    private int id = -1;
+    /**
+     * Advanced by every successful view, rating and favorite command of the
+     * user, so the cached recommendations for the user aren't used anymore
+     */
+    private long version = 0;
 
     public User(final String username, final String subscriptionType,
-                final Map<String, Integer> history,
-                final ArrayList<String> favoriteVideos) {
+                final IntIntMap history,
+                final IntSet favoriteVideos) {
         this.username = username;
         this.subscriptionType = subscriptionType;
         this.favoriteVideos = favoriteVideos;
         this.history = history;
+        history.forEach((titleId, views) -> seen.set(titleId));
     }
 
     public Integer getNumberOfRatings() {
-        return this.ratedVideos.size();
+        return this.numberOfRatings;
     }
 
-    public User(final User user) {
-        this.username = user.getUsername();
-        this.subscriptionType = user.getSubscriptionType();
-        this.history = user.getHistory();
-        this.favoriteVideos = user.getFavoriteVideos();
-    }
-
-    public ArrayList<String> getRatedVideos() {
+    public IntSet getRatedVideos() {
         return ratedVideos;
     }
 
-    public HashMap<String, ArrayList<Integer>> getRatedSeasons() {
-        return ratedSeasons;
-    }
-
-    public void setRatedSeasons(final HashMap<String,
-                                ArrayList<Integer>> ratedSeasons) {
-        this.ratedSeasons = ratedSeasons;
-    }
-
     /**
      * @param user the user who wants to add a movie to his favorite videos
      * @param videoTitle the video to be added in the favorite videos list
+     * @param titleId the id of videoTitle, SymbolTable.NO_ID if it isn't in
+     *                the database
+     * @param video the video with the title videoTitle, null if it doesn't
+     *              exist in the database
      * @return a string which is the result of the action
      */
-    public String addFavorite(final User user, final String videoTitle) {
+    public String addFavorite(final User user, final String videoTitle,
+                              final int titleId, final Video video) {
         String msg;
         // if the user hasn't watched the movie yet
-        if (!user.history.containsKey(videoTitle)) {
+        if (!user.hasSeen(titleId)) {
             msg = "error -> " + videoTitle + " is not seen";
             // if the user has already added the video in his favorite videos
             // list
-        } else if (user.favoriteVideos.contains(videoTitle)) {
+        } else if (user.favoriteVideos.contains(titleId)) {
             msg = "error -> " + videoTitle + " is already in favourite list";
         } else {
             // add the video
-            user.favoriteVideos.add(videoTitle);
+            user.favoriteVideos.add(titleId);
+            user.version++;
+            // keeping the favorite occurrences of the video up to date
+            if (video != null) {
+                video.incrementFavorites();
+            }
             msg = "success -> " + videoTitle + " was added as favourite";
         }
         return msg;
@@ -83,23 +106,20 @@ public final class User {
         String msg;
         int views;
         // if the movie hasn't been watched yet
-        if (!user.history.containsKey(movie.getTitle())) {
+        if (!user.hasSeen(movie.getTitleId())) {
             views = 0;
-            views++;
-            user.history.put(movie.getTitle(), views);
-            movie.setViews(views);
-            msg = "success -> " + movie.getTitle()
-                    + " was viewed with total views of " + views;
         } else {
             // update the views of the movie, if it has been already seen
-            views = user.history.get(movie.getTitle());
-            views++;
-            user.history.put(movie.getTitle(), views);
-            movie.setViews(views);
-            msg = "success -> " + movie.getTitle()
-                    + " was viewed with total views of "
-                    + movie.getViews();
-        }
+            views = user.history.get(movie.getTitleId(), 0);
+        }
+        views++;
+        user.history.put(movie.getTitleId(), views);
+        user.seen.set(movie.getTitleId());
+        user.version++;
+        // keeping the total views of the movie up to date
+        movie.addViews(1);
+        msg = "success -> " + movie.getTitle()
+                + " was viewed with total views of " + views;
         return msg;
     }
 
@@ -112,21 +132,19 @@ public final class User {
         String msg;
         int views;
         // if the serial hasn't been watched yet
-        if (!user.history.containsKey(serial.getTitle())) {
+        if (!user.hasSeen(serial.getTitleId())) {
             views = 0;
-            views++;
-            user.history.put(serial.getTitle(), views);
-            serial.setViews(views);
-            msg = "success -> " + serial.getTitle() + " was viewed with total views of " + views;
         // else updates the total views
         } else {
-            views = user.history.get(serial.getTitle());
-            views++;
-            user.history.put(serial.getTitle(), views);
-            serial.setViews(views);
-            msg = "success -> " + serial.getTitle() + " was viewed with total views of "
-                    + serial.getViews();
-        }
+            views = user.history.get(serial.getTitleId(), 0);
+        }
+        views++;
+        user.history.put(serial.getTitleId(), views);
+        user.seen.set(serial.getTitleId());
+        user.version++;
+        // keeping the total views of the serial up to date
+        serial.addViews(1);
+        msg = "success -> " + serial.getTitle() + " was viewed with total views of " + views;
         return msg;
     }
 
@@ -140,23 +158,21 @@ public final class User {
                             final Movie movie) {
         String msg;
         String videoTitle = action.getTitle();
+        int titleId = movie.getTitleId();
         double grade = action.getGrade();
-        // if the user has watched the movie and hasn't rated it yet
-        if (user.history.containsKey(videoTitle)
-            && !user.ratedVideos.contains(videoTitle)) {
-                if (!user.ratedVideos.contains(videoTitle)) {
-                    user.ratedVideos.add(videoTitle);
-                }
-                movie.getRatings().add(grade);
-                movie.getFinalGrade();
-                msg = "success -> " + videoTitle + " was rated with " + grade + " by "
-                        + user.getUsername();
-        // if the user has already rated the movie
-        } else if (user.ratedVideos.contains(videoTitle)) {
-            msg = "error -> " + videoTitle + " has been already rated";
         // if the user hasn't seen the movie yet
-        } else {
+        if (!user.hasSeen(titleId)) {
             msg = "error -> " + videoTitle + " is not seen";
+        // if the user has already rated the movie, a rated video is always
+        // seen, so the set is checked and updated at once
+        } else if (!user.ratedVideos.add(titleId)) {
+            msg = "error -> " + videoTitle + " has been already rated";
+        } else {
+            user.numberOfRatings++;
+            user.version++;
+            movie.addRating(grade);
+            msg = "success -> " + videoTitle + " was rated with " + grade + " by "
+                    + user.getUsername();
         }
         return msg;
     }
@@ -171,40 +187,33 @@ public final class User {
                              final Serial serial) {
         String msg;
         String videoTitle = action.getTitle();
+        int titleId = serial.getTitleId();
         double grade;
-        // if the user has watched the movie and hasn't rated it yet
-        if (!user.history.containsKey(videoTitle)) {
+        BitSet rated = user.ratedSeasons.get(titleId);
+        // if the user hasn't seen the serial yet
+        if (!user.hasSeen(titleId)) {
             msg = "error -> " + videoTitle + " is not seen";
-            // if the serial has not been seen yeet
-        } else if (!user.getRatedSeasons().containsKey(videoTitle)) {
-            // setting the grade for the serial
-            serial.mySetGrade(action);
-            // getting the grade to add to serial
-            grade = action.getGrade();
-            // adding the serial to ratedVideos
-            user.ratedVideos.add(serial.getTitle());
-            ArrayList<Integer> array = new ArrayList<>();
-            array.add(action.getSeasonNumber());
-            user.ratedSeasons.put(videoTitle, array);
-            int index = action.getSeasonNumber() - 1;
-            serial.getSeasons().get(index).getRatings().add(grade);
-            msg = "success -> " + videoTitle + " was rated with " + grade + " by "
-                    + user.getUsername();
-//            serial.getSeasons().get(index).getRatings().add(grade);
-        } else if (user.getRatedSeasons().containsKey(videoTitle)
-                    && !user.getRatedSeasons().get(videoTitle).contains(action.getSeasonNumber())) {
+        // if the season hasn't been rated yet
+        } else if (rated == null || !rated.get(action.getSeasonNumber())) {
             // setting the grade for the serial
             serial.mySetGrade(action);
             // getting the grade to add to serial
             grade = action.getGrade();
-            // adding the serial to ratedVideos
-            user.ratedVideos.add(serial.getTitle());
-            user.ratedSeasons.get(videoTitle).add(action.getSeasonNumber());
+            // adding the serial to ratedVideos, every season counting as a
+            // rating
+            user.ratedVideos.add(titleId);
+            user.numberOfRatings++;
+            // the seasons of a serial are only kept after its first rating
+            if (rated == null) {
+                rated = new BitSet();
+                user.ratedSeasons.put(titleId, rated);
+            }
+            rated.set(action.getSeasonNumber());
+            user.version++;
             int index = action.getSeasonNumber() - 1;
-            serial.getSeasons().get(index).getRatings().add(grade);
+            serial.addSeasonRating(index, grade);
             msg = "success -> " + videoTitle + " was rated with " + grade + " by "
                     + user.getUsername();
-//            serial.getSeasons().get(index).getRatings().add(grade);
         // if the serial has already been rated
         } else {
             msg = "error -> " + videoTitle + " has been already rated";
@@ -219,29 +228,10 @@ public final class User {
      */
     public static ArrayList<String> ratingNumbers(final Database database,
                                                   final Action action) {
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
-        ArrayList<String> titles = new ArrayList<>();
-        String sortType = action.getSortType();
-        // sorting by how many ratings a user has given
-        users.sort(Comparator.comparingInt(User::getNumberOfRatings)
-                                            .thenComparing(User::getUsername));
-        // if sort type is desc, reverse the arraylist
-        if (!sortType.equals("asc")) {
-            Collections.reverse(users);
-        }
-        // adding to an arraylist of strings
-        int i = 0;
-        for (User user : users) {
-            if (i == action.getNumber()) {
-                break;
-            } else {
-                if (user.ratedVideos.size() != 0) {
-                    i++;
-                    titles.add(user.getUsername());
-                }
-            }
-        }
-        return titles;
+        // the users are already ordered by how many ratings they have given
+        // and then by username
+        return database.getRatingLeaderboard().getUsernames(action.getNumber(),
+                action.getSortType().equals("asc"));
     }
 
     /**
@@ -252,34 +242,20 @@ public final class User {
      */
     public static String standardRecommendation(final Database database,
                                                 final Action action) {
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
-        ArrayList<Serial> serials = new ArrayList<>(database.getSerialsData());
-        User userGood = null;
-        // getting the user and use the copy constructor
-        for (User user : users) {
-            if (user.getUsername().equals(action.getUsername())) {
-                userGood = new User(user);
-            }
-        }
+        // getting the user from the database index
+        User userGood = getUser(database, action);
         // if the user doesn't exit, return null
         if (userGood == null) {
             return null;
         }
-        // iterating through the list of movies and returning the first
-        // movie which is not seen
-        for (Movie movie : movies) {
-            if (!userGood.history.containsKey(movie.getTitle())) {
-                return movie.getTitle();
-            }
-        }
-        // if there's no movie to be recommended, iterate through serials
-        for (Serial serial : serials) {
-            if (!userGood.history.containsKey(serial.getTitle())) {
-                return serial.getTitle();
-            }
+        // the title ids of the movies and then of the serials follow the
+        // order of the database, so the first unseen video has the first
+        // clear bit, the ids after the videos belonging to no video
+        Video video = database.getVideo(userGood.seen.nextClearBit(0));
+        if (video == null) {
+            return null;
         }
-        return null;
+        return video.getTitle();
     }
 
     /**
@@ -289,53 +265,14 @@ public final class User {
      */
     public static ArrayList<String> searchRecommendation(final Database database,
                                                          final Action action) {
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
-        ArrayList<Serial> serials = new ArrayList<>(database.getSerialsData());
-        User userGood = null;
-        for (User user : users) {
-            if (user.getUsername().equals(action.getUsername())) {
-                userGood = new User(user);
-            }
-        }
+        // getting the user from the database index
+        User userGood = getUser(database, action);
         assert userGood != null;
         if (!userGood.getSubscriptionType().equals("PREMIUM")) {
             return null;
         }
-        movies.removeIf(movie ->
-                        !movie.getGenres().contains(action.getGenre()));
-        serials.removeIf(serial ->
-                        !serial.getGenres().contains(action.getGenre()));
-        for (Movie movie : movies) {
-            movie.getFinalGrade();
-        }
-        for (Serial serial : serials) {
-            serial.myGetGrade();
-        }
-        ArrayList<Video> videos = new ArrayList<>(movies);
-        videos.addAll(serials);
-        for (Video video : videos) {
-            if (video instanceof Movie) {
-                video.setVideoGrade(((Movie) video).getGrade());
-            } else if (video instanceof Serial) {
-                video.setVideoGrade(((Serial) video).getGrade());
-            }
-        }
-        // sorting movies by the movie grade
-        Comparator<Video> comparator;
-        comparator = Comparator.comparing(Video::getVideoGrade);
-        // 2nd criteria is the title
-        comparator = comparator.thenComparing(Video::getTitle);
-        videos.sort(comparator);
-        // iterate through the movies
-        ArrayList<String> titles = new ArrayList<>();
-        for (Video video : videos) {
-            if (video.getGenres().contains(action.getGenre())
-                && !userGood.getHistory().containsKey(video.getTitle())) {
-                titles.add(video.getTitle());
-            }
-        }
-        return titles;
+        // the videos of the genre are already ordered by grade and title
+        return database.getGenreGradeIndex().unseenTitles(userGood, action.getGenre());
     }
 
     /**
@@ -345,111 +282,19 @@ public final class User {
      */
     public static String popularRecommendation(final Database database,
                                                final Action action) {
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
-        User userGood = null;
-        HashMap<String, Integer> genres = new HashMap<>();
-        for (User user : users) {
-            if (user.getUsername().equals(action.getUsername())) {
-                userGood = new User(user);
-                break;
-            }
-        }
+        // getting the user from the database index
+        User userGood = getUser(database, action);
         assert userGood != null;
         if (!userGood.getSubscriptionType().equals("PREMIUM")) {
             return null;
         }
-        // setting the views for movies
-        Movie.mySetViews(movies, users);
-        for (Movie movie : movies) {
-            // calculating the views for every genre
-            // and add the genre as a key and views as a value in a hashmap
-            for (String genre : movie.getGenres()) {
-                // if the genre has been already added, update the value
-                // in the hashmap
-                if (genres.containsKey(genre)) {
-                    Integer aux = genres.get(genre);
-                    aux += movie.getViews();
-                    genres.replace(genre, aux);
-                // if the genre isn't in the hashmap and the movie views
-                // exist, put the genre in the hashmap as key and views as value
-                } else if (movie.getViews() != null) {
-                    genres.put(genre, movie.getViews());
-                }
-            }
-        }
-        ArrayList<Serial> serials = database.getSerialsData();
-        Serial.mySerialSetViews(serials, users);
-        for (Serial serial : serials) {
-            // calculating the views for every genre
-            // and add the genre as a key and views as a value in a hashmap
-            for (String genre : serial.getGenres()) {
-                // if the genre has been already added, update the value
-                // in the hashmap
-                if (genres.containsKey(genre)) {
-                    Integer aux = genres.get(genre);
-                    aux += serial.getViews();
-                    genres.replace(genre, aux);
-                // if the genre isn't in the hashmap and the movie views
-                // exist, put the genre in the hashmap as key and views as value
-                } else if (serial.getViews() != null) {
-                    genres.put(genre, serial.getViews());
-                }
-            }
-        }
-        // get all genres of all existing movies and serials
-        ArrayList<String> allGenres = new ArrayList<>();
-        for (Movie movie : movies) {
-            for (String genre : movie.getGenres()) {
-                if (!allGenres.contains(genre)) {
-                    allGenres.add(genre);
-                }
-            }
-        }
-        for (Serial serial : serials) {
-            for (String genre : serial.getGenres()) {
-                if (!allGenres.contains(genre)) {
-                    allGenres.add(genre);
-                }
-            }
-        }
-        // sort the hashmap by value
-        Map<String, Integer> sortHash = genres.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByValue())
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (oldValue, newValue) -> oldValue, LinkedHashMap::new));
-        // create an arraylist of HashMap.Entry
-        ArrayList<HashMap.Entry<String, Integer>> map =
-                new ArrayList<>(sortHash.entrySet());
-        // reverse the arraylist so the most watched genre is the first one
-        Collections.reverse(map);
-        ArrayList<String> titles = new ArrayList<>();
-        // add every title
-        for (HashMap.Entry<String, Integer> title : map) {
-            titles.add(title.getKey());
-        }
-        for (String title : titles) {
-            for (Movie movie : movies) {
-                if (movie.getGenres().contains(title)
-                    && !userGood.getHistory().containsKey(movie.getTitle())) {
-                    return movie.getTitle();
-                }
-            }
-        }
-
-        for (String title : titles) {
-            for (Serial serial : serials) {
-                // if the user has seen a serial of a certain genre
-                if (serial.getGenres().contains(title)
-                    && !userGood.getHistory().containsKey(serial.getTitle())) {
-                    return serial.getTitle();
-                }
-            }
+        // the total views of every genre are kept up to date by the views,
+        // so the genres are only ranked here
+        Video video = database.getGenrePopularity().mostPopularUnseen(userGood);
+        if (video == null) {
+            return null;
         }
-        return null;
+        return video.getTitle();
     }
     /**
      * @param database database which contains info about every entity
@@ -458,49 +303,26 @@ public final class User {
      */
     public static String bestunseenRecommendation(final Database database,
                                                   final Action action) {
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
-        ArrayList<Serial> serials = new ArrayList<>(database.getSerialsData());
-        User userGood = null;
-        for (User user : users) {
-            if (user.getUsername().equals(action.getUsername())) {
-                userGood = new User(user);
-                break;
-            }
-        }
-        ArrayList<Video> videos = new ArrayList<>(movies);
-        videos.addAll(serials);
-        for (Video video : videos) {
-            if (video instanceof Movie) {
-                ((Movie) video).getFinalGrade();
-                video.setVideoGrade(((Movie) video).getGrade());
-            } else if (video instanceof Serial) {
-                Double serialGrade = ((Serial) video).myGetGrade();
-                video.setVideoGrade(serialGrade);
-            }
-        }
-        // setting the favorite occurrences for movies
-        Comparator<Video> comparator;
-        // sort by grades
-        comparator = Comparator.comparing(Video::getVideoGrade);
-//        comparator = comparator.thenComparing(Video::getTitle);
-        videos.sort(comparator);
-        for (Video video : videos) {
-            if (video.getVideoGrade() != 0
-                && !userGood.getHistory().containsKey(video.getTitle())) {
-                Collections.reverse(videos);
-                break;
+        // getting the user from the database index
+        User userGood = getUser(database, action);
+        assert userGood != null;
+        GradeIndex gradeIndex = database.getGradeIndex();
+        // the videos are ordered by grade and then by their order in the
+        // database, the highest graded unseen video being the answer when
+        // the user hasn't seen a graded video
+        Video video = gradeIndex.firstUnseen(userGood, true);
+        if (video != null && gradeIndex.getGrade(video) == 0) {
+            // if every unseen video is ungraded, the first unseen video in
+            // ascending order of grades is recommended instead
+            Video lowest = gradeIndex.firstUnseen(userGood, false);
+            if (gradeIndex.getGrade(lowest) == 0) {
+                video = lowest;
             }
         }
-        // reverse the arraylist so the first movie is the highest graded
-        for (Video video : videos) {
-            // if the user hasn't seen the movie yet, return it
-            assert userGood != null;
-            if (!userGood.getHistory().containsKey(video.getTitle())) {
-                return video.getTitle();
-            }
+        if (video == null) {
+            return null;
         }
-        return null;
+        return video.getTitle();
     }
 
     /**
@@ -511,64 +333,54 @@ public final class User {
      */
     public static String favoriteRecommendation(final Database database,
                                                 final Action action) {
-        ArrayList<User> users = new ArrayList<>(database.getUsersData());
-        ArrayList<Movie> movies = new ArrayList<>(database.getMoviesData());
-        ArrayList<Serial> serials = new ArrayList<>(database.getSerialsData());
-        User userGood = null;
-        for (User user : users) {
-            if (user.getUsername().equals(action.getUsername())) {
-                userGood = new User(user);
-            }
-        }
+        // getting the user from the database index
+        User userGood = getUser(database, action);
         assert userGood != null;
         if (!userGood.getSubscriptionType().equals("PREMIUM")) {
             return null;
         }
-        Movie.mySetIsFavorites(movies, users);
-        Serial.mySetIsFavoriteSerial(serials, users);
-        ArrayList<Video> videos = new ArrayList<>(movies);
-        videos.addAll(serials);
-        int max = 0;
-        String title = null;
-        for (Video video : videos) {
-            if (video instanceof Movie) {
-                video.setVideoIsFavorite(((Movie) video).getIsFavorite());
-            } else if (video instanceof Serial) {
-                video.setVideoIsFavorite(((Serial) video).getIsFavorite());
-            }
-        }
-//        // setting the favorite occurrences for movies
-//        Comparator<Video> comparator;
-//        // sort by grades
-//        comparator = Comparator.comparing(Video::getVideoIsFavorite);
-//        // reverse the arraylist so the first movie is the most favorite
-//        videos.sort(comparator);
-        for (Video video : videos) {
-            if (video.getVideoIsFavorite() > max
-                && !userGood.getHistory().containsKey(video.getTitle())) {
-                max = video.getVideoIsFavorite();
-                title = video.getTitle();
-            }
-        }
-        if (max != 0) {
-            return title;
+        // the videos are ordered by the favorite occurrences, which are kept
+        // up to date by the favorite commands
+        Video video = database.getFavoriteIndex().mostFavoriteUnseen(userGood);
+        if (video == null) {
+            return null;
         }
-        return null;
+        return video.getTitle();
     }
 
     public String getUsername() {
         return username;
     }
 
-    public Map<String, Integer> getHistory() {
+    public int getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setId(final int id) {
+        this.id = id;
+    }
+
+    public IntIntMap getHistory() {
         return history;
     }
 
+    /**
+     * @param titleId the id of a title from the database
+     * @return true if the user has seen the video with the given title
+     */
+    public boolean hasSeen(final int titleId) {
+        return titleId >= 0 && seen.get(titleId);
+    }
+
     public String getSubscriptionType() {
         return subscriptionType;
     }
 
-    public ArrayList<String> getFavoriteVideos() {
+    public IntSet getFavoriteVideos() {
         return favoriteVideos;
     }
 
@@ -578,13 +390,7 @@ public final class User {
      * @return the user with the name action.getUsername()
      */
     public static User getUser(final Database database, final Action action) {
-        ArrayList<User> users = database.getUsersData();
-        for (User user : users) {
-            if (Objects.equals(user.getUsername(), action.getUsername())) {
-                return user;
-            }
-        }
-        return null;
+        return database.getUser(action.getUsername());
     }
 
     @Override
@@ -1,14 +1,45 @@
 package entities;
 
+import entertainment.Genre;
+import utils.Utils;
+
 import java.util.ArrayList;
+import java.util.EnumSet;
 
 public abstract class Video {
     private final String title;
     private final int year;
     private final ArrayList<String> cast;
     private final ArrayList<String> genres;
-    private double videoGrade = 0.0;
-    private Integer videoIsFavorite = 0;
+    /**
+     * The genres of the video converted to enums when the video is loaded
+     */
+    private final EnumSet<Genre> genreSet = EnumSet.noneOf(Genre.class);
+    /**
+     * The genres of the video which have no enum, kept as in the input
+     */
+    private final ArrayList<String> otherGenres = new ArrayList<>();
+    /**
+     * The actors from the database who play in the video
+     */
+    private final ArrayList<Actor> castActors = new ArrayList<>();
+    /**
+     * Number of users who have the video in their favorite list, updated on
+     * every favorite command
+     */
+    private int favorites = 0;
+    /**
+     * Total views of the video from every user, updated on every view
+     */
+    private int views = 0;
+    /**
+     * Dense id of the video, the movies coming first and then the serials
+     */
+    private int id = -1;
+    /**
+     * Id of the title in the symbol table of the database
+     */
+    private int titleId = -1;
 
     public Video(final String title, final int year,
                      final ArrayList<String> cast, final ArrayList<String> genres) {
@@ -16,6 +47,16 @@ public abstract class Video {
         this.year = year;
         this.cast = cast;
         this.genres = genres;
+        if (genres != null) {
+            for (String genre : genres) {
+                Genre genreEnum = Utils.stringToGenre(genre);
+                if (genreEnum != null) {
+                    this.genreSet.add(genreEnum);
+                } else {
+                    this.otherGenres.add(genre);
+                }
+            }
+        }
     }
 
     public Video() {
@@ -54,30 +95,89 @@ public abstract class Video {
     }
 
     /**
-     * @return
+     * @return the dense id of the video
      */
-    public double getVideoGrade() {
-        return videoGrade;
+    public int getId() {
+        return id;
     }
 
     /**
-     * @param finalGrade
+     * @param id the dense id given by the database
      */
-    public void setVideoGrade(final double finalGrade) {
-        this.videoGrade = finalGrade;
+    public void setId(final int id) {
+        this.id = id;
     }
 
     /**
-     * @return
+     * @return the id of the title in the symbol table of the database
+     */
+    public int getTitleId() {
+        return titleId;
+    }
+
+    /**
+     * @param titleId the id given to the title by the database
+     */
+    public void setTitleId(final int titleId) {
+        this.titleId = titleId;
+    }
+
+    /**
+     * @return the total views of the video from every user
+     */
+    public int getViews() {
+        return views;
+    }
+
+    /**
+     * @param newViews views to be added to the total views of the video
+     */
+    public void addViews(final int newViews) {
+        this.views += newViews;
+    }
+
+    /**
+     * @return the genres of the video as enums
+     */
+    public EnumSet<Genre> getGenreSet() {
+        return genreSet;
+    }
+
+    /**
+     * @return the genres of the video which aren't in entertainment.Genre
+     */
+    public ArrayList<String> getOtherGenres() {
+        return otherGenres;
+    }
+
+    /**
+     * @param actor an actor from the database who plays in the video
+     */
+    public void addCastActor(final Actor actor) {
+        this.castActors.add(actor);
+    }
+
+    /**
+     * Updates the average rate of every actor who plays in the video, called
+     * every time the grade of the video changes
+     */
+    public void updateCastAverages() {
+        for (Actor actor : castActors) {
+            actor.updateAverage();
+        }
+    }
+
+    /**
+     * @return the number of users who have the video in their favorite list
      */
-    public Integer getVideoIsFavorite() {
-        return videoIsFavorite;
+    public int getFavorites() {
+        return favorites;
     }
 
     /**
-     * @param videoIsFavorite
+     * Adds a new user to the favorite occurrences of the video
      */
-    public void setVideoIsFavorite(final Integer videoIsFavorite) {
-        this.videoIsFavorite = videoIsFavorite;
+    public void incrementFavorites() {
+        this.favorites++;
     }
 }
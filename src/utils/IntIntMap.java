@@ -0,0 +1,145 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Map from non-negative int keys to int values, kept in two arrays with open
+ * addressing, so neither the keys nor the values are boxed.
+ */
+public final class IntIntMap {
+    /**
+     * Marks the free slots of the keys array
+     */
+    private static final int FREE = -1;
+    private static final int INITIAL_CAPACITY = 8;
+    /**
+     * Multiplier which spreads consecutive ids over the whole array
+     */
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private int[] keys;
+    private int[] values;
+    private int size = 0;
+
+    /**
+     * Called for every entry of the map
+     */
+    public interface EntryConsumer {
+        /**
+         * @param key the key of the entry
+         * @param value the value of the entry
+         */
+        void accept(int key, int value);
+    }
+
+    public IntIntMap() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, FREE);
+    }
+
+    /**
+     * @param key a key
+     * @param capacity the length of the arrays, a power of two
+     * @return the first slot where the key is searched
+     */
+    private static int slot(final int key, final int capacity) {
+        int hash = key * GOLDEN_RATIO;
+        return (hash ^ (hash >>> (Integer.SIZE / 2))) & (capacity - 1);
+    }
+
+    /**
+     * @param key a key
+     * @return the slot of the key or the free slot where it would be added
+     */
+    private int find(final int key) {
+        int index = slot(key, keys.length);
+        while (keys[index] != FREE && keys[index] != key) {
+            index = (index + 1) & (keys.length - 1);
+        }
+        return index;
+    }
+
+    /**
+     * @param key a key
+     * @return true if the map has the key
+     */
+    public boolean containsKey(final int key) {
+        return key >= 0 && keys[find(key)] == key;
+    }
+
+    /**
+     * @param key a key
+     * @param defaultValue returned if the map doesn't have the key
+     * @return the value of the key
+     */
+    public int get(final int key, final int defaultValue) {
+        if (key < 0) {
+            return defaultValue;
+        }
+        int index = find(key);
+        return keys[index] == key ? values[index] : defaultValue;
+    }
+
+    /**
+     * @param key a non-negative key
+     * @param value the new value of the key
+     * @return true if the map didn't have the key before
+     */
+    public boolean put(final int key, final int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("negative key " + key);
+        }
+        int index = find(key);
+        boolean added = keys[index] == FREE;
+        if (added) {
+            // the map is kept at most half full, so the probes stay short
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                index = find(key);
+            }
+            keys[index] = key;
+            size++;
+        }
+        values[index] = value;
+        return added;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int index = find(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * @param consumer called for every entry, in no particular order
+     */
+    public void forEach(final EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,46 @@
+package utils;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Set of non-negative ints, kept as the keys of an IntIntMap so the elements
+ * aren't boxed.
+ */
+public final class IntSet {
+    private final IntIntMap elements = new IntIntMap();
+
+    /**
+     * @param element an element
+     * @return true if the set has the element
+     */
+    public boolean contains(final int element) {
+        return elements.containsKey(element);
+    }
+
+    /**
+     * @param element a non-negative element
+     * @return true if the element wasn't in the set before
+     */
+    public boolean add(final int element) {
+        return elements.put(element, 0);
+    }
+
+    /**
+     * @param consumer called for every element, in no particular order
+     */
+    public void forEach(final IntConsumer consumer) {
+        elements.forEach((element, value) -> consumer.accept(element));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        forEach(element -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(element);
+        });
+        return builder.append(']').toString();
+    }
+}
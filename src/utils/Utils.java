@@ -7,8 +7,13 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.PriorityQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -137,4 +142,96 @@ public final class Utils {
         Matcher matcher = pattern.matcher(words);
         return matcher.find();
     }
+
+    /**
+     * @param c a character
+     * @return true if the character is a letter or a digit from [A-Za-z0-9]
+     */
+    private static boolean isWordCharacter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * @param word the filter word
+     * @return true if the word can be searched in the words returned by
+     *         getDescriptionWords, false if it needs getWord
+     */
+    public static boolean isIndexableWord(final String word) {
+        if (word == null || word.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (!isWordCharacter(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a description in the words found by getWord: runs of [A-Za-z0-9]
+     * which have another character both before and after them
+     * @param description the description to be split
+     * @return the set of lowercase words of the description
+     */
+    public static HashSet<String> getDescriptionWords(final String description) {
+        HashSet<String> words = new HashSet<>();
+        if (description == null) {
+            return words;
+        }
+        int length = description.length();
+        int i = 0;
+        while (i < length) {
+            if (!isWordCharacter(description.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isWordCharacter(description.charAt(i))) {
+                i++;
+            }
+            // the word must be delimited on both sides, like in getWord
+            if (start > 0 && i < length) {
+                words.add(description.substring(start, i).toLowerCase(Locale.ROOT));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Selects the first elements of a collection in the order given by a
+     * comparator, using a bounded heap instead of sorting everything
+     * @param elements the elements to be selected from
+     * @param limit the maximum number of elements to be returned, a negative
+     *              limit returns every element
+     * @param comparator the order of the returned elements
+     * @param <T> the type of the elements
+     * @return an arraylist with the first limit elements, sorted
+     */
+    public static <T> ArrayList<T> topK(final Collection<T> elements, final int limit,
+                                        final Comparator<? super T> comparator) {
+        if (limit < 0 || limit >= elements.size()) {
+            ArrayList<T> sorted = new ArrayList<>(elements);
+            sorted.sort(comparator);
+            return sorted;
+        }
+        ArrayList<T> selected = new ArrayList<>(limit);
+        if (limit == 0) {
+            return selected;
+        }
+        // the head of the heap is the worst element selected so far
+        PriorityQueue<T> heap = new PriorityQueue<>(limit, comparator.reversed());
+        for (T element : elements) {
+            if (heap.size() < limit) {
+                heap.add(element);
+            } else if (comparator.compare(element, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        }
+        selected.addAll(heap);
+        selected.sort(comparator);
+        return selected;
+    }
 }